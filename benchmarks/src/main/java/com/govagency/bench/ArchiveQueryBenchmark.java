@@ -0,0 +1,49 @@
+package com.govagency.bench;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.govagency.model.Archive;
+import com.govagency.storage.Page;
+import com.govagency.storage.PageRequest;
+
+/**
+ * The queries behind the admin archive tab.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ArchiveQueryBenchmark {
+
+    @Benchmark
+    public Archive archiveById(DatabaseState state) {
+        int archive = ThreadLocalRandom.current().nextInt(SyntheticDatabase.archives(state.records));
+        return state.db.getArchiveById(SyntheticDatabase.archiveId(archive));
+    }
+
+    @Benchmark
+    public List<Archive> archivesByType(DatabaseState state) {
+        return state.db.getArchivesByType(Archive.ArchiveType.DELETED_CITIZEN.name());
+    }
+
+    @Benchmark
+    public List<Archive> allArchives(DatabaseState state) {
+        return state.db.getAllArchives();
+    }
+
+    @Benchmark
+    public Page<Archive> firstArchivesPage(DatabaseState state) {
+        return state.db.getArchivesPage(PageRequest.first(PageRequest.BY_TIME, 100));
+    }
+}
@@ -0,0 +1,43 @@
+package com.govagency.bench;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.govagency.LocalDatabase;
+
+/**
+ * An open copy of a synthetic database, for the benchmarks that query or
+ * change it.
+ */
+@State(Scope.Benchmark)
+public class DatabaseState {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    int records;
+
+    LocalDatabase db;
+    private Path directory;
+    private PrintStream stdout;
+
+    @Setup(Level.Trial)
+    public void open() throws IOException {
+        directory = SyntheticDatabase.copy(records);
+        stdout = SyntheticDatabase.silenceStdout();
+        db = LocalDatabase.open(directory);
+    }
+
+    @TearDown(Level.Trial)
+    public void close() throws IOException {
+        db.close();
+        System.setOut(stdout);
+        SyntheticDatabase.delete(directory);
+    }
+}
@@ -0,0 +1,90 @@
+package com.govagency.bench;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.govagency.model.ServiceRequest;
+
+/**
+ * Adding, updating and deleting service requests. Plain variants measure
+ * the in-memory change plus handing the record to the log writer; the
+ * durable variant also waits for the group commit.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class MutationBenchmark {
+
+    private static final int SAMPLE_SIZE = 1024;
+
+    private List<ServiceRequest> sample;
+    private int next;
+    private long added;
+
+    @Setup(Level.Trial)
+    public void pickRequests(DatabaseState state) {
+        List<ServiceRequest> all = state.db.getAllRequests();
+        Collections.shuffle(all, new Random(7));
+        sample = new ArrayList<>(all.subList(0, Math.min(SAMPLE_SIZE, all.size())));
+    }
+
+    private ServiceRequest nextRequest() {
+        ServiceRequest request = sample.get(next);
+        next = (next + 1) % sample.size();
+        return request;
+    }
+
+    private ServiceRequest newRequest(DatabaseState state) {
+        int citizen = ThreadLocalRandom.current().nextInt(SyntheticDatabase.citizens(state.records));
+        return new ServiceRequest("BENCH-REQ-" + Thread.currentThread().getId() + "-" + added++,
+            SyntheticDatabase.citizenId(citizen), SyntheticDatabase.SERVICE_TYPES[0], "Benchmark request");
+    }
+
+    @Benchmark
+    public CompletableFuture<Void> addRequest(DatabaseState state) {
+        return state.db.addRequest(newRequest(state));
+    }
+
+    @Benchmark
+    public void addRequestDurable(DatabaseState state) {
+        state.db.addRequest(newRequest(state)).join();
+    }
+
+    @Benchmark
+    public CompletableFuture<Void> updateRequestStatus(DatabaseState state) {
+        ServiceRequest request = nextRequest();
+        ServiceRequest.Status[] statuses = ServiceRequest.Status.values();
+        request.setStatus(statuses[(request.getStatus().ordinal() + 1) % statuses.length]);
+        return state.db.updateRequest(request.getId(), request);
+    }
+
+    /**
+     * A delete, followed by putting the row back so the table keeps its size.
+     */
+    @Benchmark
+    public CompletableFuture<Void> deleteAndReinsertRequest(DatabaseState state) {
+        ServiceRequest request = nextRequest();
+        state.db.deleteRequest(request.getId());
+        return state.db.addRequest(request);
+    }
+}
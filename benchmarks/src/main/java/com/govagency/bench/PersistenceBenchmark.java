@@ -0,0 +1,118 @@
+package com.govagency.bench;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.govagency.LocalDatabase;
+import com.govagency.model.Archive;
+import com.govagency.model.Citizen;
+import com.govagency.model.Document;
+import com.govagency.model.ServiceRequest;
+
+/**
+ * Opening a database (loading every collection file) and checkpointing it
+ * (rewriting the changed collection files).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class PersistenceBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    int records;
+
+    Path directory;
+    private PrintStream stdout;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = SyntheticDatabase.copy(records);
+        stdout = SyntheticDatabase.silenceStdout();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        System.setOut(stdout);
+        SyntheticDatabase.delete(directory);
+    }
+
+    /**
+     * The database kept open for the checkpoint benchmarks, with one row of
+     * each collection to touch.
+     */
+    @State(Scope.Benchmark)
+    public static class OpenDatabase {
+        LocalDatabase db;
+        Citizen citizen;
+        ServiceRequest request;
+        Document document;
+        Archive archive;
+
+        @Setup(Level.Trial)
+        public void open(PersistenceBenchmark files) throws IOException {
+            db = LocalDatabase.open(files.directory);
+            citizen = db.getAllCitizens().get(0);
+            request = db.getAllRequests().get(0);
+            document = db.getAllDocuments().get(0);
+            archive = db.getAllArchives().get(0);
+        }
+
+        @TearDown(Level.Trial)
+        public void close() {
+            db.close();
+        }
+    }
+
+    /**
+     * Open and close the database, which reads every collection file.
+     * Nothing is dirty, so closing writes nothing.
+     */
+    @Benchmark
+    public int load() throws IOException {
+        try (LocalDatabase db = LocalDatabase.open(directory)) {
+            return db.getCitizenCount();
+        }
+    }
+
+    /**
+     * Change one row in every collection and checkpoint, which rewrites
+     * every collection file.
+     */
+    @Benchmark
+    public void saveAllCollections(OpenDatabase open) {
+        LocalDatabase db = open.db;
+        db.updateCitizen(open.citizen.getId(), open.citizen);
+        db.updateRequest(open.request.getId(), open.request);
+        db.updateDocument(open.document.getId(), open.document);
+        db.addToArchive(open.archive);
+        db.checkpoint().join();
+    }
+
+    /**
+     * Change one request and checkpoint, which rewrites only the requests file.
+     */
+    @Benchmark
+    public void saveOneCollection(OpenDatabase open) {
+        open.db.updateRequest(open.request.getId(), open.request);
+        open.db.checkpoint().join();
+    }
+}
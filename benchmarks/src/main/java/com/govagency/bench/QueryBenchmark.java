@@ -0,0 +1,120 @@
+package com.govagency.bench;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.govagency.model.Citizen;
+import com.govagency.model.Document;
+import com.govagency.model.ServiceRequest;
+import com.govagency.storage.Page;
+import com.govagency.storage.PageRequest;
+
+/**
+ * Lookups through the indexes, the same questions answered by scanning,
+ * citizen search and paging.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class QueryBenchmark {
+
+    private static final int PAGE_SIZE = 100;
+
+    private PageRequest middlePage;
+
+    @Setup(Level.Trial)
+    public void findMiddlePage(DatabaseState state) {
+        int middle = SyntheticDatabase.requests(state.records) / 2;
+        Page<ServiceRequest> page = state.db.getRequestsPage(PageRequest.at(PageRequest.BY_TIME, middle, PAGE_SIZE));
+        middlePage = page.hasNext() ? page.next() : PageRequest.first(PageRequest.BY_TIME, PAGE_SIZE);
+    }
+
+    private static int pick(int bound) {
+        return ThreadLocalRandom.current().nextInt(bound);
+    }
+
+    @Benchmark
+    public List<ServiceRequest> requestsByCitizenIndexed(DatabaseState state) {
+        return state.db.getRequestsByCitizenId(SyntheticDatabase.citizenId(pick(SyntheticDatabase.citizens(state.records))));
+    }
+
+    @Benchmark
+    public int requestsByCitizenScan(DatabaseState state) {
+        String citizenId = SyntheticDatabase.citizenId(pick(SyntheticDatabase.citizens(state.records)));
+        int found = 0;
+        for (ServiceRequest request : state.db.getAllRequests()) {
+            if (request.getCitizenId().equals(citizenId)) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    @Benchmark
+    public List<Document> documentsByRequestIndexed(DatabaseState state) {
+        return state.db.getDocumentsByRequestId(SyntheticDatabase.requestId(pick(SyntheticDatabase.requests(state.records))));
+    }
+
+    @Benchmark
+    public List<Document> documentsByCitizenIndexed(DatabaseState state) {
+        return state.db.getDocumentsByCitizenId(SyntheticDatabase.citizenId(pick(SyntheticDatabase.citizens(state.records))));
+    }
+
+    @Benchmark
+    public Citizen citizenByEmailIndexed(DatabaseState state) {
+        return state.db.findCitizenByEmail(SyntheticDatabase.email(pick(SyntheticDatabase.citizens(state.records))));
+    }
+
+    @Benchmark
+    public Citizen citizenByEmailScan(DatabaseState state) {
+        String email = SyntheticDatabase.email(pick(SyntheticDatabase.citizens(state.records)));
+        for (Citizen citizen : state.db.getAllCitizens()) {
+            if (citizen.getEmail().equalsIgnoreCase(email)) {
+                return citizen;
+            }
+        }
+        return null;
+    }
+
+    @Benchmark
+    public List<Citizen> searchCitizensByName(DatabaseState state) {
+        return state.db.searchCitizens("maria santos", 200);
+    }
+
+    @Benchmark
+    public List<Citizen> searchCitizensByIdFragment(DatabaseState state) {
+        return state.db.searchCitizens(Integer.toString(pick(SyntheticDatabase.citizens(state.records))), 200);
+    }
+
+    @Benchmark
+    public Page<ServiceRequest> firstRequestsPage(DatabaseState state) {
+        return state.db.getRequestsPage(PageRequest.first(PageRequest.BY_TIME, PAGE_SIZE));
+    }
+
+    @Benchmark
+    public Page<ServiceRequest> middleRequestsPageByOffset(DatabaseState state) {
+        int middle = SyntheticDatabase.requests(state.records) / 2;
+        return state.db.getRequestsPage(PageRequest.at(PageRequest.BY_TIME, middle, PAGE_SIZE));
+    }
+
+    @Benchmark
+    public Page<ServiceRequest> middleRequestsPageByCursor(DatabaseState state) {
+        return state.db.getRequestsPage(middlePage);
+    }
+}
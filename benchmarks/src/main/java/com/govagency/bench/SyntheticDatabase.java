@@ -0,0 +1,190 @@
+package com.govagency.bench;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.govagency.LocalDatabase;
+import com.govagency.model.Archive;
+import com.govagency.model.Citizen;
+import com.govagency.model.Document;
+import com.govagency.model.ServiceRequest;
+
+/**
+ * Synthetic databases for the benchmarks.
+ *
+ * A database of a given size is generated once under the directory named by
+ * the {@code govagency.bench.data} property (default target/bench-data) and
+ * reused by later runs. Each trial works on its own copy, so mutations never
+ * leak into the next trial.
+ *
+ * Records are split 10% citizens, 40% service requests, 40% documents and
+ * 10% archives. Generation is seeded, and which citizen owns which request is
+ * a pure function of the ids, so benchmarks can pick valid keys without
+ * reading the data first.
+ */
+final class SyntheticDatabase {
+
+    static final String[] SERVICE_TYPES = {
+        "Passport Application", "Driver's License", "Birth Certificate", "Business Permit",
+        "Marriage Certificate", "Tax Clearance", "Police Clearance", "Barangay Clearance"
+    };
+    private static final String[] FIRST_NAMES = {
+        "Maria", "Jose", "Juan", "Ana", "Mark", "Grace", "Paolo", "Liza", "Ramon", "Carmen"
+    };
+    private static final String[] LAST_NAMES = {
+        "Santos", "Reyes", "Cruz", "Bautista", "Garcia", "Mendoza", "Torres", "Flores", "Ramos", "Aquino"
+    };
+    private static final LocalDateTime EPOCH = LocalDateTime.of(2025, 1, 1, 8, 0);
+    private static final String COMPLETE_MARKER = "generated.ok";
+
+    private SyntheticDatabase() {
+    }
+
+    static int citizens(int records) {
+        return Math.max(1, records / 10);
+    }
+
+    static int requests(int records) {
+        return Math.max(1, records * 4 / 10);
+    }
+
+    static int documents(int records) {
+        return Math.max(1, records * 4 / 10);
+    }
+
+    static int archives(int records) {
+        return Math.max(1, records / 10);
+    }
+
+    static String citizenId(int i) {
+        return "CT-" + i;
+    }
+
+    static String requestId(int i) {
+        return "REQ-" + i;
+    }
+
+    static String documentId(int i) {
+        return "DOC-" + i;
+    }
+
+    static String archiveId(int i) {
+        return "ARCH-" + i;
+    }
+
+    static String email(int citizen) {
+        return "citizen" + citizen + "@example.com";
+    }
+
+    static int citizenOfRequest(int request, int records) {
+        return (int) ((request * 2654435761L & 0x7fffffffL) % citizens(records));
+    }
+
+    static int requestOfDocument(int document, int records) {
+        return (int) ((document * 40503L & 0x7fffffffL) % requests(records));
+    }
+
+    /**
+     * A fresh copy of the database with the given number of records,
+     * generating it first if needed. Delete it with {@link #delete}.
+     */
+    static Path copy(int records) throws IOException {
+        Path source = prepare(records);
+        Path target = Files.createTempDirectory("govagency-bench-");
+        try (Stream<Path> files = Files.list(source)) {
+            for (Path file : files.collect(Collectors.toList())) {
+                Files.copy(file, target.resolve(file.getFileName()), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        return target;
+    }
+
+    static void delete(Path directory) throws IOException {
+        if (directory == null || !Files.exists(directory)) return;
+        try (Stream<Path> files = Files.walk(directory)) {
+            List<Path> paths = files.sorted(Comparator.reverseOrder()).collect(Collectors.toList());
+            for (Path path : paths) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    /**
+     * The database mutators print a line per change. Benchmarks silence
+     * standard output around setup and measurement and restore it after.
+     */
+    static PrintStream silenceStdout() {
+        PrintStream original = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        return original;
+    }
+
+    private static synchronized Path prepare(int records) throws IOException {
+        Path root = Path.of(System.getProperty("govagency.bench.data", "target/bench-data"));
+        Path directory = root.resolve("records-" + records).toAbsolutePath();
+        if (Files.exists(directory.resolve(COMPLETE_MARKER))) {
+            return directory;
+        }
+
+        delete(directory);
+        Files.createDirectories(directory);
+        PrintStream stdout = silenceStdout();
+        try (LocalDatabase db = LocalDatabase.open(directory)) {
+            generate(db, records);
+            db.flush().join();
+        } finally {
+            System.setOut(stdout);
+        }
+        Files.createFile(directory.resolve(COMPLETE_MARKER));
+        return directory;
+    }
+
+    private static void generate(LocalDatabase db, int records) {
+        Random random = new Random(42);
+
+        for (int i = 0; i < citizens(records); i++) {
+            String name = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " "
+                + LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+            String number = String.format("09%09d", i);
+            db.addCitizen(new Citizen(citizenId(i), name, number, email(i), "password" + i));
+        }
+
+        ServiceRequest.Status[] requestStatuses = ServiceRequest.Status.values();
+        for (int i = 0; i < requests(records); i++) {
+            ServiceRequest.Status status = requestStatuses[random.nextInt(requestStatuses.length)];
+            db.addRequest(new ServiceRequest(requestId(i), citizenId(citizenOfRequest(i, records)),
+                SERVICE_TYPES[random.nextInt(SERVICE_TYPES.length)],
+                "Synthetic request " + i + " for benchmarking",
+                status, status == ServiceRequest.Status.REJECTED ? "Incomplete requirements" : "",
+                EPOCH.plusMinutes(random.nextInt(525_600))));
+        }
+
+        Document.Status[] documentStatuses = Document.Status.values();
+        for (int i = 0; i < documents(records); i++) {
+            int request = requestOfDocument(i, records);
+            LocalDateTime uploaded = EPOCH.plusMinutes(random.nextInt(525_600));
+            db.addDocument(new Document(documentId(i), requestId(request),
+                "/uploads/" + requestId(request) + "/scan-" + i + ".pdf",
+                citizenId(citizenOfRequest(request, records)),
+                documentStatuses[random.nextInt(documentStatuses.length)], "", uploaded, null));
+        }
+
+        Archive.ArchiveType[] archiveTypes = Archive.ArchiveType.values();
+        for (int i = 0; i < archives(records); i++) {
+            Archive.ArchiveType type = archiveTypes[random.nextInt(archiveTypes.length)];
+            db.addToArchive(new Archive(archiveId(i), "ENT-" + i, type,
+                "{\"note\":\"synthetic archive " + i + "\"}",
+                EPOCH.plusMinutes(random.nextInt(525_600)), "ADMIN", "Benchmark data"));
+        }
+    }
+}
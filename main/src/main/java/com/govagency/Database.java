@@ -1,31 +1,39 @@
 package com.govagency;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
-import org.json.JSONObject;
-
+import com.govagency.logging.Logger;
+import com.govagency.logging.Logging;
 import com.govagency.model.Citizen;
 import com.govagency.model.Document;
 import com.govagency.model.ServiceRequest;
 
+/**
+ * Storage for citizens, documents and service requests. Mutations apply
+ * immediately in memory; the returned future completes once the change is
+ * durable on disk.
+ */
 public abstract class Database {
+
+    private static final Logger LOG = Logging.logger("db");
     
-    public abstract void addCitizen(Citizen c);
-    public abstract void deleteCitizen(String citizenId);
-    public abstract void updateCitizen(String citizenId, Citizen c);
-    public abstract List<JSONObject> getAllCitizens();
+    public abstract CompletableFuture<Void> addCitizen(Citizen c);
+    public abstract CompletableFuture<Void> deleteCitizen(String citizenId);
+    public abstract CompletableFuture<Void> updateCitizen(String citizenId, Citizen c);
+    public abstract List<Citizen> getAllCitizens();
     
-    public abstract void addDocument(Document d);
-    public abstract void deleteDocument(String documentId);
-    public abstract void updateDocument(String documentId, Document d);
-    public abstract List<JSONObject> getAllDocuments();
+    public abstract CompletableFuture<Void> addDocument(Document d);
+    public abstract CompletableFuture<Void> deleteDocument(String documentId);
+    public abstract CompletableFuture<Void> updateDocument(String documentId, Document d);
+    public abstract List<Document> getAllDocuments();
     
-    public abstract void addRequest(ServiceRequest r);
-    public abstract void deleteRequest(String requestId);
-    public abstract void updateRequest(String requestId, ServiceRequest r);
-    public abstract List<JSONObject> getAllRequests();
+    public abstract CompletableFuture<Void> addRequest(ServiceRequest r);
+    public abstract CompletableFuture<Void> deleteRequest(String requestId);
+    public abstract CompletableFuture<Void> updateRequest(String requestId, ServiceRequest r);
+    public abstract List<ServiceRequest> getAllRequests();
     
     protected void logOperation(String operation) {
-        System.out.println("Database operation: " + operation);
+        LOG.debug("Database operation", "operation", operation);
     }
 }
\ No newline at end of file
@@ -1,573 +1,1281 @@
 package com.govagency;
 
-import java.io.FileWriter;
 import java.io.IOException;
+import java.io.Reader;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.time.LocalDateTime;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.DateTimeException;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongSupplier;
 
-import org.json.JSONArray;
+import org.json.JSONException;
 import org.json.JSONObject;
 
+import com.govagency.logging.Logger;
+import com.govagency.logging.Logging;
+import com.govagency.metrics.Counter;
+import com.govagency.metrics.Metrics;
+import com.govagency.metrics.Timer;
+import com.govagency.metrics.jfr.DatabaseLoadEvent;
+import com.govagency.metrics.jfr.DatabaseLookupEvent;
+import com.govagency.metrics.jfr.DatabaseMutationEvent;
+import com.govagency.metrics.jfr.DatabaseSaveEvent;
 import com.govagency.model.Archive;
 import com.govagency.model.Citizen;
 import com.govagency.model.Document;
 import com.govagency.model.ServiceRequest;
+import com.govagency.storage.Checkpoint;
+import com.govagency.storage.CommitPolicy;
+import com.govagency.storage.GroupCommitWriter;
+import com.govagency.storage.IdGenerator;
+import com.govagency.storage.ModelCodecs;
+import com.govagency.storage.Page;
+import com.govagency.storage.PageRequest;
+import com.govagency.storage.PersistentTable;
+import com.govagency.storage.StreamingLoader;
+import com.govagency.storage.Table;
+import com.govagency.storage.WriteAheadLog;
 
-public class LocalDatabase extends Database {
+/**
+ * File-backed database. There is one instance per data directory: open it
+ * once at startup with {@link #open()}, share it, and {@link #close()} it on
+ * shutdown. All public methods are safe to call from any thread.
+ *
+ * Getters return the stored model objects themselves, which the writer and
+ * checkpoint threads may be encoding at any moment, so treat them as read-only.
+ * To change a row, build an updated copy and pass it to the matching update
+ * method; the copy then becomes the stored row.
+ */
+public class LocalDatabase extends Database implements AutoCloseable {
 
-    private static final String DB_PATH = "database.json";
-    private final JSONObject root;
+    // Single-file format used before each collection got its own file
+    private static final String LEGACY_DB_FILE = "database.json";
+    private static final String MIGRATED_SUFFIX = ".migrated";
+    private static final String WAL_FILE = "database.wal";
+    private static final String LOCK_FILE = "database.lock";
 
-    public LocalDatabase() {
-        root = load();
+    private static final String CITIZENS = "citizens";
+    private static final String DOCUMENTS = "documents";
+    private static final String REQUESTS = "requests";
+    private static final String ARCHIVES = "archives";
+    private static final String SEQUENCES = "sequences";
+
+    private static final String CITIZEN_ID = "CT";
+    private static final String REQUEST_ID = "REQ";
+    private static final String DOCUMENT_ID = "DOC";
+    private static final String ARCHIVE_ID = "ARCH";
+
+    /** Counters kept for requests and documents; see {@link #getRequestCounts}. */
+    public static final String COUNT_BY_STATUS = "status";
+    /** Requests only. */
+    public static final String COUNT_BY_TYPE = "type";
+    /** Keyed by ISO date (yyyy-MM-dd) of creation or upload. */
+    public static final String COUNT_BY_DAY = "day";
+
+    // Changed collection files are rewritten once this many mutations have piled up in the WAL
+    private static final int CHECKPOINT_INTERVAL = 1000;
+
+    private static final Logger LOG = Logging.logger("db");
+
+    // Calls are timed from before they wait for the lock
+    private static final Timer LOAD = Metrics.timer("db.load");
+    private static final Timer SAVE = Metrics.timer("db.save");
+    private static final Counter SAVE_FAILURES = Metrics.counter("db.save.failures");
+    private static final Timer PUT = Metrics.timer("db.put");
+    private static final Timer REMOVE = Metrics.timer("db.remove");
+    private static final Timer GET = Metrics.timer("db.get");
+    private static final Timer GET_ALL = Metrics.timer("db.getAll");
+    private static final Timer GET_PAGE = Metrics.timer("db.getPage");
+    private static final Timer ADD_CITIZEN = Metrics.timer("db.addCitizen");
+    private static final Timer DELETE_CITIZEN = Metrics.timer("db.deleteCitizen");
+    private static final Timer UPDATE_CITIZEN = Metrics.timer("db.updateCitizen");
+    private static final Timer ADD_DOCUMENT = Metrics.timer("db.addDocument");
+    private static final Timer DELETE_DOCUMENT = Metrics.timer("db.deleteDocument");
+    private static final Timer UPDATE_DOCUMENT = Metrics.timer("db.updateDocument");
+    private static final Timer ADD_REQUEST = Metrics.timer("db.addRequest");
+    private static final Timer DELETE_REQUEST = Metrics.timer("db.deleteRequest");
+    private static final Timer UPDATE_REQUEST = Metrics.timer("db.updateRequest");
+    private static final Timer GET_ALL_CITIZENS = Metrics.timer("db.getAllCitizens");
+    private static final Timer GET_ALL_DOCUMENTS = Metrics.timer("db.getAllDocuments");
+    private static final Timer GET_ALL_REQUESTS = Metrics.timer("db.getAllRequests");
+    private static final Timer SEARCH_CITIZENS = Metrics.timer("db.searchCitizens");
+    private static final Timer GET_CITIZEN_BY_ID = Metrics.timer("db.getCitizenById");
+    private static final Timer FIND_CITIZEN_BY_EMAIL = Metrics.timer("db.findCitizenByEmail");
+    private static final Timer FIND_CITIZEN_BY_NUMBER = Metrics.timer("db.findCitizenByNumber");
+    private static final Timer GET_REQUESTS_BY_CITIZEN_ID = Metrics.timer("db.getRequestsByCitizenId");
+    private static final Timer GET_DOCUMENTS_BY_REQUEST_ID = Metrics.timer("db.getDocumentsByRequestId");
+    private static final Timer GET_DOCUMENTS_BY_CITIZEN_ID = Metrics.timer("db.getDocumentsByCitizenId");
+    private static final Timer FIND_REQUESTS_BY_CITIZEN_ID = Metrics.timer("db.findRequestsByCitizenId");
+    private static final Timer FIND_DOCUMENTS_BY_CITIZEN_ID = Metrics.timer("db.findDocumentsByCitizenId");
+    private static final Timer FIND_DOCUMENTS_BY_ID = Metrics.timer("db.findDocumentsById");
+    private static final Timer ADD_TO_ARCHIVE = Metrics.timer("db.addToArchive");
+    private static final Timer GET_ALL_ARCHIVES = Metrics.timer("db.getAllArchives");
+    private static final Timer GET_ARCHIVES_BY_TYPE = Metrics.timer("db.getArchivesByType");
+    private static final Timer ARCHIVE_CITIZEN = Metrics.timer("db.archiveCitizen");
+    private static final Timer GET_ARCHIVE_BY_ID = Metrics.timer("db.getArchiveById");
+    private static final Timer GET_ARCHIVE_BY_ENTITY_ID = Metrics.timer("db.getArchiveByEntityId");
+
+    // Data directories opened by this process
+    private static final Set<Path> OPEN_DIRECTORIES = new HashSet<>();
+
+    private final Path directory;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final FileChannel lockChannel;
+    private final FileLock fileLock;
+
+    private final PersistentTable<Citizen> citizens =
+        new PersistentTable<>(CITIZENS, ModelCodecs.CITIZEN, Citizen::getId)
+            .addIndex("email", c -> normalizeEmail(c.getEmail()))
+            .addIndex("number", Citizen::getNumber)
+            .addTextIndex("search", List.of(Citizen::getName, Citizen::getEmail, Citizen::getNumber, Citizen::getId));
+    private final PersistentTable<ServiceRequest> requests =
+        new PersistentTable<>(REQUESTS, ModelCodecs.REQUEST, ServiceRequest::getId)
+            .addIndex("citizenId", ServiceRequest::getCitizenId)
+            .addOrder("citizenId", ServiceRequest::getCitizenId)
+            .addOrder(PageRequest.BY_TIME, ServiceRequest::getCreatedAt)
+            .addCounter(COUNT_BY_STATUS, r -> r.getStatus().name())
+            .addCounter(COUNT_BY_TYPE, ServiceRequest::getServiceType)
+            .addCounter(COUNT_BY_DAY, r -> r.getCreatedAt().toLocalDate().toString());
+    private final PersistentTable<Document> documents =
+        new PersistentTable<>(DOCUMENTS, ModelCodecs.DOCUMENT, Document::getId)
+            .addIndex("requestId", Document::getAttachedRequestId)
+            .addIndex("citizenId", Document::getCitizenId)
+            .addOrder("citizenId", Document::getCitizenId)
+            .addOrder(PageRequest.BY_TIME, Document::getUploadTime)
+            .addCounter(COUNT_BY_STATUS, d -> d.getStatus().name())
+            .addCounter(COUNT_BY_DAY, d -> d.getUploadTime().toLocalDate().toString());
+    private final PersistentTable<Archive> archives =
+        new PersistentTable<>(ARCHIVES, ModelCodecs.ARCHIVE, Archive::getArchiveId)
+            .addIndex("type", a -> a.getType().name())
+            .addIndex("entity", a -> entityKey(a.getEntityId(), a.getType().name()))
+            .addOrder(PageRequest.BY_TIME, Archive::getArchivedAt);
+    private final PersistentTable<IdGenerator.HighWaterMark> sequences =
+        new PersistentTable<>(SEQUENCES, ModelCodecs.HIGH_WATER_MARK, IdGenerator.HighWaterMark::getKey);
+
+    // Id prefix -> generator, created on first use
+    private final Map<String, IdGenerator> idGenerators = new ConcurrentHashMap<>();
+    private final int node = IdGenerator.nodeFromSystemProperties();
+
+    // Collection name -> table, in registration order
+    private final Map<String, PersistentTable<?>> tables = new LinkedHashMap<>();
+
+    private final WriteAheadLog wal;
+    private final GroupCommitWriter writer;
+    // Registered with Metrics while the database is open
+    private final Map<String, LongSupplier> gauges = new LinkedHashMap<>();
+    private boolean closed;
+
+    private LocalDatabase(Path directory, FileChannel lockChannel, FileLock fileLock,
+                          CommitPolicy policy, PersistentTable<?>[] extraCollections) {
+        this.directory = directory;
+        this.lockChannel = lockChannel;
+        this.fileLock = fileLock;
+
+        for (PersistentTable<?> table : List.of(citizens, documents, requests, archives, sequences)) {
+            tables.put(table.getName(), table);
+        }
+        for (PersistentTable<?> table : extraCollections) {
+            if (tables.putIfAbsent(table.getName(), table) != null) {
+                throw new IllegalArgumentException("Duplicate collection: " + table.getName());
+            }
+        }
+
+        load();
+        this.wal = openWal();
+        this.writer = new GroupCommitWriter(wal, policy, CHECKPOINT_INTERVAL, this::save);
+
+        for (PersistentTable<?> table : tables.values()) {
+            gauges.put("db." + table.getName() + ".rows", () -> rowCount(table));
+        }
+        gauges.put("db.writer.queue", writer::getQueueLength);
+        gauges.forEach(Metrics::gauge);
+
+        // Reserve the first block of each kind of id now, so the first form opened does not wait for it
+        for (String prefix : List.of(CITIZEN_ID, REQUEST_ID, DOCUMENT_ID, ARCHIVE_ID)) {
+            idGenerator(prefix).reserveAhead();
+        }
     }
 
-    private JSONObject load() {
-        try {
-            if (! Files.exists(Path.of(DB_PATH))) {
-                return initializeDatabase();
+    /**
+     * Open the database in the working directory.
+     */
+    public static LocalDatabase open() throws IOException {
+        return open(Path.of(""));
+    }
+
+    /**
+     * Open the database stored in the given directory. Fails if it is already
+     * open, either in this process or in another one.
+     *
+     * @param extraCollections collections to store alongside the built-in
+     *                         ones; each is kept in its own file and can be
+     *                         used with {@link #put}, {@link #remove},
+     *                         {@link #get} and {@link #getAll}
+     */
+    public static LocalDatabase open(Path directory, PersistentTable<?>... extraCollections) throws IOException {
+        return open(directory, CommitPolicy.fromSystemProperties(), extraCollections);
+    }
+
+    /**
+     * Open the database with an explicit policy for grouping writes.
+     */
+    public static LocalDatabase open(Path directory, CommitPolicy policy,
+                                     PersistentTable<?>... extraCollections) throws IOException {
+        Path dir = directory.toAbsolutePath().normalize();
+
+        synchronized (OPEN_DIRECTORIES) {
+            if (OPEN_DIRECTORIES.contains(dir)) {
+                throw new IllegalStateException("Database is already open: " + dir);
             }
-            
-            String text = Files.readString(Path. of(DB_PATH));
-            JSONObject obj = new JSONObject(text);
-            
-            if (!obj.has("citizens")) {
-                obj.put("citizens", new JSONArray());
+
+            Files.createDirectories(dir);
+            FileChannel channel = FileChannel.open(dir.resolve(LOCK_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            FileLock fileLock = channel.tryLock();
+            if (fileLock == null) {
+                channel.close();
+                throw new IllegalStateException("Database is in use by another process: " + dir);
             }
-            if (! obj.has("documents")) {
-                obj.put("documents", new JSONArray());
+
+            LocalDatabase db;
+            long started = LOAD.start();
+            try {
+                db = new LocalDatabase(dir, channel, fileLock, policy, extraCollections);
+            } catch (RuntimeException e) {
+                fileLock.release();
+                channel.close();
+                throw e;
+            } finally {
+                LOAD.stop(started);
             }
-            if (!obj.has("requests")) {
-                obj. put("requests", new JSONArray());
+            OPEN_DIRECTORIES.add(dir);
+            return db;
+        }
+    }
+
+    /**
+     * Wait for every pending write, checkpoint, and release the database.
+     * Changes made after this fail to persist. Further calls are no-ops.
+     */
+    @Override
+    public void close() {
+        lock.writeLock().lock();
+        try {
+            if (closed) return;
+            closed = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        gauges.forEach(Metrics::removeGauge);
+        // The writer takes the lock for its final snapshot, so it must not be held here
+        writer.close();
+        try {
+            if (wal != null) {
+                wal.close();
             }
-            if (!obj.has("archives")) {
-                obj.put("archives", new JSONArray());
+            fileLock.release();
+            lockChannel.close();
+        } catch (IOException e) {
+            LOG.error("Error closing database", e);
+        } finally {
+            synchronized (OPEN_DIRECTORIES) {
+                OPEN_DIRECTORIES.remove(directory);
             }
-            
-            save(obj);
-            return obj;
-        } catch (IOException | org.json.JSONException e) {
-            System.err.println("Error loading database: " + e. getMessage());
-            return initializeDatabase();
         }
     }
 
-    private JSONObject initializeDatabase() {
-        JSONObject obj = new JSONObject();
-        obj.put("citizens", new JSONArray());
-        obj.put("documents", new JSONArray());
-        obj.put("requests", new JSONArray());
-        obj.put("archives", new JSONArray());
-        save(obj);
-        return obj;
+    /**
+     * Canonical form used by the email index: trimmed and lower-cased.
+     */
+    public static String normalizeEmail(String email) {
+        return email == null ? "" : email.trim().toLowerCase();
+    }
+
+    private static String entityKey(String entityId, String type) {
+        return entityId + "|" + type;
     }
 
-    private void save(JSONObject data) {
-        try (FileWriter fw = new FileWriter(DB_PATH)) {
-            fw.write(data.toString(4));
-        } catch (Exception e) {
-            System.err.println("Error saving database: " + e.getMessage());
+    private WriteAheadLog openWal() {
+        try {
+            Path walPath = directory.resolve(WAL_FILE);
+            DatabaseLoadEvent event = new DatabaseLoadEvent();
+            event.collection = "wal";
+            event.begin();
+            WriteAheadLog log = new WriteAheadLog(walPath);
+            int replayed = log.replay(this::applyRecord);
+            event.records = replayed;
+            event.bytes = Files.size(walPath);
+            event.commit();
+            if (replayed > 0) {
+                LOG.info("Replayed WAL records", "count", replayed);
+                if (save()) {
+                    log.reset();
+                }
+            }
+            return log;
+        } catch (IOException | JSONException e) {
+            LOG.error("Error opening write-ahead log, falling back to full saves", e);
+            return null;
         }
     }
 
-    @Override
-    public void addCitizen(Citizen c) {
+    private void applyRecord(JSONObject record) {
+        PersistentTable<?> table = tables.get(record.optString("collection"));
+        if (table == null) {
+            LOG.warn("Skipping WAL record for unknown collection", "collection", record.optString("collection"));
+            return;
+        }
+
         try {
-            JSONArray arr = root.optJSONArray("citizens");
-            if (arr == null) {
-                arr = new JSONArray();
-                root.put("citizens", arr);
+            if (WriteAheadLog.OP_PUT.equals(record.getString("op"))) {
+                table.putJson(record.getJSONObject("row"));
+            } else {
+                table.remove(record.getString("id"));
             }
+        } catch (JSONException | IllegalArgumentException | DateTimeException e) {
+            LOG.warn("Skipping invalid WAL record", e);
+        }
+    }
 
-            JSONObject obj = new JSONObject();
-            obj.put("id", c.getId());
-            obj.put("name", c.getName());
-            obj.put("email", c.getEmail());
-            obj.put("number", c.getNumber());
-            obj.put("password", c.getPassword());
+    /**
+     * Hand a mutation to the background writer. Must be called with the
+     * write lock held, so records reach the log in the order they were
+     * applied. Only the record itself is written; the changed collection
+     * files are rewritten when the log reaches CHECKPOINT_INTERVAL.
+     *
+     * @return completes once the mutation is durable
+     */
+    private CompletableFuture<Void> log(JSONObject record) {
+        if (closed) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Database is closed"));
+        }
+        return writer.submit(record);
+    }
+
+    /**
+     * @return completes once every mutation made so far is durable
+     */
+    public CompletableFuture<Void> flush() {
+        return writer.flush();
+    }
 
-            arr.put(obj);
-            save(root);
-        } catch (org.json.JSONException e) {
-            System.err.println("Error adding citizen: " + e.getMessage());
+    /**
+     * Write every changed collection file and clear the log. The log is kept
+     * if the checkpoint could not be written, so nothing is lost.
+     *
+     * @return completes once the checkpoint is on disk
+     */
+    public CompletableFuture<Void> checkpoint() {
+        return writer.checkpoint();
+    }
+
+    /**
+     * Load every collection from its own file. A directory that still has
+     * only the old single-file database.json is migrated first.
+     */
+    private void load() {
+        Path legacyPath = directory.resolve(LEGACY_DB_FILE);
+        boolean hasCollectionFiles = false;
+        for (PersistentTable<?> table : tables.values()) {
+            Path path = fileOf(table);
+            if (Files.exists(path) || Files.exists(Checkpoint.backupOf(path))) {
+                hasCollectionFiles = true;
+                break;
+            }
         }
+
+        if (!hasCollectionFiles && (Files.exists(legacyPath) || Files.exists(Checkpoint.backupOf(legacyPath)))) {
+            migrateLegacy(legacyPath);
+            return;
+        }
+
+        for (PersistentTable<?> table : tables.values()) {
+            loadTable(table);
+        }
+        save();
     }
 
-    @Override
-    public void deleteCitizen(String citizenId) {
-        try {
-            JSONArray arr = root.optJSONArray("citizens");
-            if (arr == null) return;
-            
-            JSONArray newArr = new JSONArray();
+    /**
+     * Load the newest readable generation of one collection file. A damaged
+     * file is moved aside instead of being overwritten, and the collection
+     * only starts empty when no generation can be read at all. The other
+     * collections are not affected.
+     */
+    private void loadTable(PersistentTable<?> table) {
+        Path path = fileOf(table);
+        Path backupPath = Checkpoint.backupOf(path);
+        table.clear();
 
-            for (int i = 0; i < arr.length(); i++) {
-                JSONObject obj = arr.getJSONObject(i);
-                if (!obj.getString("id").equals(citizenId)) {
-                    newArr.put(obj);
+        if (!Files.exists(path) && !Files.exists(backupPath)) {
+            return;
+        }
+
+        for (Path candidate : List.of(path, backupPath)) {
+            if (!Files.exists(candidate)) continue;
+
+            DatabaseLoadEvent event = new DatabaseLoadEvent();
+            event.collection = table.getName();
+            event.begin();
+            try (Reader reader = Checkpoint.openReader(candidate)) {
+                table.clear();
+                StreamingLoader.load(reader, (collection, row) -> {
+                    if (collection.equals(table.getName())) {
+                        putRow(table, row);
+                    }
+                });
+                event.records = table.size();
+                event.bytes = Files.size(candidate);
+                event.commit();
+                if (candidate == path) {
+                    table.markClean();
+                } else {
+                    LOG.warn("Recovered collection from previous generation", "collection", table.getName(), "file", candidate);
                 }
+                return;
+            } catch (Checkpoint.CorruptCheckpointException | JSONException e) {
+                LOG.error("Error loading collection", "collection", table.getName(), "file", candidate, e);
+                quarantine(candidate);
+            } catch (IOException e) {
+                LOG.error("Error reading collection", "collection", table.getName(), "file", candidate, e);
             }
-
-            root.put("citizens", newArr);
-            save(root);
-        } catch (org.json.JSONException e) {
-            System.err.println("Error deleting citizen: " + e.getMessage());
         }
+
+        LOG.warn("No readable generation found, starting collection empty", "collection", table.getName());
+        table.clear();
     }
 
-    @Override
-    public void updateCitizen(String citizenId, Citizen c) {
-        try {
-            JSONArray arr = root.optJSONArray("citizens");
-            if (arr == null) return;
-
-            for (int i = 0; i < arr.length(); i++) {
-                JSONObject obj = arr.getJSONObject(i);
-                if (obj.getString("id").equals(citizenId)) {
-                    obj.put("name", c.getName());
-                    obj.put("email", c.getEmail());
-                    obj.put("number", c.getNumber());
-                    obj.put("password", c.getPassword());
-                    break;
+    /**
+     * Split the old single-file database.json into one file per collection.
+     * The old file is renamed only once every collection file is written.
+     */
+    private void migrateLegacy(Path legacyPath) {
+        for (Path candidate : List.of(legacyPath, Checkpoint.backupOf(legacyPath))) {
+            if (!Files.exists(candidate)) continue;
+
+            try (Reader reader = Checkpoint.openReader(candidate)) {
+                for (PersistentTable<?> table : tables.values()) {
+                    table.clear();
+                }
+                StreamingLoader.load(reader, (collection, row) -> {
+                    PersistentTable<?> table = tables.get(collection);
+                    if (table != null) {
+                        putRow(table, row);
+                    }
+                });
+            } catch (Checkpoint.CorruptCheckpointException | JSONException e) {
+                LOG.error("Error loading database", "file", candidate, e);
+                quarantine(candidate);
+                continue;
+            } catch (IOException e) {
+                LOG.error("Error reading database", "file", candidate, e);
+                continue;
+            }
+
+            if (save()) {
+                try {
+                    Files.move(candidate, candidate.resolveSibling(candidate.getFileName() + MIGRATED_SUFFIX),
+                        StandardCopyOption.REPLACE_EXISTING);
+                    LOG.info("Migrated database to per-collection files", "file", candidate);
+                } catch (IOException e) {
+                    LOG.error("Error renaming migrated database file", e);
                 }
             }
+            return;
+        }
 
-            save(root);
-        } catch (org.json.JSONException e) {
-            System.err.println("Error updating citizen: " + e.getMessage());
+        LOG.warn("No readable database generation found, starting with an empty database");
+        for (PersistentTable<?> table : tables.values()) {
+            table.clear();
         }
+        save();
     }
 
-    @Override
-    public void addDocument(Document d) {
+    private static void putRow(PersistentTable<?> table, JSONObject row) {
+        try {
+            table.putJson(row);
+        } catch (JSONException | IllegalArgumentException | DateTimeException e) {
+            LOG.warn("Skipping invalid row", "collection", table.getName(), e);
+        }
+    }
+
+    private int rowCount(PersistentTable<?> table) {
+        lock.readLock().lock();
         try {
-            JSONArray arr = root.optJSONArray("documents");
-            if (arr == null) {
-                arr = new JSONArray();
-                root.put("documents", arr);
+            return table.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Path fileOf(PersistentTable<?> table) {
+        return directory.resolve(table.getFileName());
+    }
+
+    private void quarantine(Path path) {
+        try {
+            Path moved = Checkpoint.quarantine(path);
+            LOG.warn("Moved damaged database file", "file", moved);
+        } catch (IOException e) {
+            LOG.error("Error moving damaged database file", e);
+        }
+    }
+
+    /**
+     * Rewrite the file of every collection that changed since it was last
+     * saved. The rows are copied under the lock, so mutations only wait for
+     * the copy and not for the file I/O.
+     *
+     * @return true if all of them were written
+     */
+    private boolean save() {
+        long started = SAVE.start();
+        try {
+            boolean saved = saveChanged();
+            if (!saved) {
+                SAVE_FAILURES.increment();
             }
+            return saved;
+        } finally {
+            SAVE.stop(started);
+        }
+    }
 
-            JSONObject obj = new JSONObject();
-            obj.put("id", d.getId());
-            obj.put("requestId", d.getAttachedRequestId());
-            obj.put("citizenId", d.getCitizenId());
-            obj.put("filePath", d.getFilePath());
-            obj.put("status", d.getStatus().name());
-            obj.put("reviewComment", d.getReviewComment() != null ? d.getReviewComment() : "");
-            obj.put("uploadTime", d.getUploadTime().toString());
-            
-            if (d.getReviewTime() != null) {
-                obj.put("reviewTime", d.getReviewTime().toString());
+    private boolean saveChanged() {
+        Map<PersistentTable<?>, Checkpoint.BodyWriter> snapshots = new LinkedHashMap<>();
+        Map<PersistentTable<?>, Integer> rowCounts = new HashMap<>();
+        lock.writeLock().lock();
+        try {
+            for (PersistentTable<?> table : tables.values()) {
+                if (table.isDirty()) {
+                    snapshots.put(table, table.snapshot());
+                    rowCounts.put(table, table.size());
+                    table.markClean();
+                }
             }
+        } catch (JSONException e) {
+            LOG.error("Error saving database", e);
+            for (PersistentTable<?> table : snapshots.keySet()) {
+                table.markDirty();
+            }
+            return false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        boolean saved = true;
+        for (Map.Entry<PersistentTable<?>, Checkpoint.BodyWriter> entry : snapshots.entrySet()) {
+            PersistentTable<?> table = entry.getKey();
+            DatabaseSaveEvent event = new DatabaseSaveEvent();
+            event.collection = table.getName();
+            event.records = rowCounts.get(table);
+            event.begin();
+            try {
+                event.bytes = Checkpoint.write(fileOf(table), entry.getValue());
+                event.succeeded = true;
+            } catch (IOException | JSONException e) {
+                LOG.error("Error saving collection", "collection", table.getName(), e);
+                saved = false;
+                lock.writeLock().lock();
+                try {
+                    table.markDirty();
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            } finally {
+                event.commit();
+            }
+        }
+        return saved;
+    }
+
+    /**
+     * Insert or replace a row in a collection passed to {@link #open}.
+     */
+    public <T> CompletableFuture<Void> put(PersistentTable<T> table, T row) {
+        long started = PUT.start();
+        DatabaseMutationEvent event = DatabaseMutationEvent.begin("put", table.getName());
+        lock.writeLock().lock();
+        try {
+            requireRegistered(table);
+            table.put(row);
+            return event.logged(log(WriteAheadLog.put(table.getName(), table.toJson(row))));
+        } finally {
+            lock.writeLock().unlock();
+            PUT.stop(started);
+            event.commit();
+        }
+    }
+
+    /**
+     * Remove a row, if present, from a collection passed to {@link #open}.
+     */
+    public <T> CompletableFuture<Void> remove(PersistentTable<T> table, String id) {
+        long started = REMOVE.start();
+        DatabaseMutationEvent event = DatabaseMutationEvent.begin("remove", table.getName());
+        lock.writeLock().lock();
+        try {
+            requireRegistered(table);
+            if (table.remove(id) == null) return CompletableFuture.completedFuture(null);
+
+            return event.logged(log(WriteAheadLog.delete(table.getName(), id)));
+        } finally {
+            lock.writeLock().unlock();
+            REMOVE.stop(started);
+            event.commit();
+        }
+    }
+
+    public <T> T get(PersistentTable<T> table, String id) {
+        long started = GET.start();
+        DatabaseLookupEvent event = DatabaseLookupEvent.begin("get", table.getName());
+        lock.readLock().lock();
+        try {
+            requireRegistered(table);
+            return event.found(table.get(id));
+        } finally {
+            lock.readLock().unlock();
+            GET.stop(started);
+            event.commit();
+        }
+    }
+
+    public <T> List<T> getAll(PersistentTable<T> table) {
+        long started = GET_ALL.start();
+        DatabaseLookupEvent event = DatabaseLookupEvent.begin("getAll", table.getName());
+        lock.readLock().lock();
+        try {
+            requireRegistered(table);
+            return event.found(new ArrayList<>(table.values()));
+        } finally {
+            lock.readLock().unlock();
+            GET_ALL.stop(started);
+            event.commit();
+        }
+    }
+
+    /**
+     * One page of a registered collection.
+     *
+     * @throws IllegalArgumentException if the table has no such order
+     */
+    public <T> Page<T> getPage(PersistentTable<T> table, PageRequest request) {
+        long started = GET_PAGE.start();
+        DatabaseLookupEvent event = DatabaseLookupEvent.begin("getPage", table.getName());
+        lock.readLock().lock();
+        try {
+            requireRegistered(table);
+            return event.found(table.page(request));
+        } finally {
+            lock.readLock().unlock();
+            GET_PAGE.stop(started);
+            event.commit();
+        }
+    }
+
+    private void requireRegistered(PersistentTable<?> table) {
+        if (tables.get(table.getName()) != table) {
+            throw new IllegalArgumentException("Collection is not part of this database: " + table.getName());
+        }
+    }
+
+    public String nextCitizenId() {
+        return idGenerator(CITIZEN_ID).next();
+    }
+
+    public String nextRequestId() {
+        return idGenerator(REQUEST_ID).next();
+    }
+
+    public String nextDocumentId() {
+        return idGenerator(DOCUMENT_ID).next();
+    }
+
+    public String nextArchiveId() {
+        return idGenerator(ARCHIVE_ID).next();
+    }
+
+    /**
+     * Generator of unique ids with the given prefix. Its blocks are reserved
+     * ahead of use, so handing out an id takes no lock unless ids are taken
+     * faster than a block is written. It must not be used with the database
+     * lock held.
+     */
+    private IdGenerator idGenerator(String prefix) {
+        return idGenerators.computeIfAbsent(prefix, p ->
+            new IdGenerator(p, node, reservedLimit(IdGenerator.key(p, node)), this::reserveIds));
+    }
+
+    private long reservedLimit(String key) {
+        lock.readLock().lock();
+        try {
+            IdGenerator.HighWaterMark mark = sequences.get(key);
+            return mark == null ? 0 : mark.getLimit();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
 
-            arr.put(obj);
-            save(root);
-            
-            System.out.println("✓ Document saved successfully:");
-            System.out.println("  - ID: " + d.getId());
-            System.out.println("  - Citizen ID: " + d.getCitizenId());
-            System.out.println("  - Request ID: " + d.getAttachedRequestId());
-            System.out.println("  - File Path: " + d.getFilePath());
-            
-        } catch (org.json.JSONException e) {
-            System.err.println("Error adding document: " + e.getMessage());
+    private CompletableFuture<Void> reserveIds(IdGenerator.HighWaterMark mark) {
+        try {
+            return put(sequences, mark);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
         }
     }
 
     @Override
-    public void deleteDocument(String documentId) {
+    public CompletableFuture<Void> addCitizen(Citizen c) {
+        long started = ADD_CITIZEN.start();
+        DatabaseMutationEvent event = DatabaseMutationEvent.begin("addCitizen", CITIZENS);
+        lock.writeLock().lock();
         try {
-            JSONArray arr = root.optJSONArray("documents");
-            if (arr == null) return;
-            
-            JSONArray newArr = new JSONArray();
+            citizens.put(c);
+            return event.logged(log(WriteAheadLog.put(CITIZENS, citizens.toJson(c))));
+        } catch (JSONException e) {
+            LOG.error("Error adding citizen", e);
+            return CompletableFuture.failedFuture(e);
+        } finally {
+            lock.writeLock().unlock();
+            ADD_CITIZEN.stop(started);
+            event.commit();
+        }
+    }
 
-            for (int i = 0; i < arr.length(); i++) {
-                JSONObject obj = arr.getJSONObject(i);
-                if (!obj.getString("id").equals(documentId)) {
-                    newArr.put(obj);
-                }
-            }
+    @Override
+    public CompletableFuture<Void> deleteCitizen(String citizenId) {
+        long started = DELETE_CITIZEN.start();
+        DatabaseMutationEvent event = DatabaseMutationEvent.begin("deleteCitizen", CITIZENS);
+        lock.writeLock().lock();
+        try {
+            if (citizens.remove(citizenId) == null) return CompletableFuture.completedFuture(null);
 
-            root.put("documents", newArr);
-            save(root);
-        } catch (org.json.JSONException e) {
-            System.err.println("Error deleting document: " + e.getMessage());
+            return event.logged(log(WriteAheadLog.delete(CITIZENS, citizenId)));
+        } finally {
+            lock.writeLock().unlock();
+            DELETE_CITIZEN.stop(started);
+            event.commit();
         }
     }
 
     @Override
-    public void updateDocument(String documentId, Document d) {
-        try {
-            JSONArray arr = root.optJSONArray("documents");
-            if (arr == null) return;
-
-            for (int i = 0; i < arr.length(); i++) {
-                JSONObject obj = arr.getJSONObject(i);
-                if (obj.getString("id").equals(documentId)) {
-                    obj.put("status", d.getStatus().name());
-                    obj.put("reviewComment", d.getReviewComment());
-                    if (d.getReviewTime() != null) {
-                        obj.put("reviewTime", d.getReviewTime().toString());
-                    }
-                    break;
-                }
-            }
+    public CompletableFuture<Void> updateCitizen(String citizenId, Citizen c) {
+        long started = UPDATE_CITIZEN.start();
+        DatabaseMutationEvent event = DatabaseMutationEvent.begin("updateCitizen", CITIZENS);
+        lock.writeLock().lock();
+        try {
+            if (!citizens.contains(citizenId)) return CompletableFuture.completedFuture(null);
 
-            save(root);
-            System.out.println("Document updated in database: " + documentId);
-        } catch (org.json.JSONException e) {
-            System.err.println("Error updating document: " + e.getMessage());
+            citizens.put(c);
+            return event.logged(log(WriteAheadLog.put(CITIZENS, citizens.toJson(c))));
+        } catch (JSONException e) {
+            LOG.error("Error updating citizen", "id", citizenId, e);
+            return CompletableFuture.failedFuture(e);
+        } finally {
+            lock.writeLock().unlock();
+            UPDATE_CITIZEN.stop(started);
+            event.commit();
         }
     }
 
     @Override
-    public void addRequest(ServiceRequest r) {
+    public CompletableFuture<Void> addDocument(Document d) {
+        long started = ADD_DOCUMENT.start();
+        DatabaseMutationEvent event = DatabaseMutationEvent.begin("addDocument", DOCUMENTS);
+        lock.writeLock().lock();
         try {
-            JSONArray arr = root.optJSONArray("requests");
-            if (arr == null) {
-                arr = new JSONArray();
-                root.put("requests", arr);
-            }
+            documents.put(d);
+            CompletableFuture<Void> durable = event.logged(log(WriteAheadLog.put(DOCUMENTS, documents.toJson(d))));
+            LOG.debug("Document saved", "id", d.getId(), "citizenId", d.getCitizenId(),
+                "requestId", d.getAttachedRequestId(), "file", d.getFilePath());
+            return durable;
+        } catch (JSONException e) {
+            LOG.error("Error adding document", e);
+            return CompletableFuture.failedFuture(e);
+        } finally {
+            lock.writeLock().unlock();
+            ADD_DOCUMENT.stop(started);
+            event.commit();
+        }
+    }
 
-            JSONObject obj = new JSONObject();
-            obj.put("id", r.getId());
-            obj.put("citizenId", r.getCitizenId());
-            obj.put("type", r.getServiceType());
-            obj.put("description", r.getDescription());
-            obj.put("status", r.getStatus().name());
-            obj.put("adminNote", r.getAdminNote());
-            obj.put("date", LocalDateTime.now().toString());
+    @Override
+    public CompletableFuture<Void> deleteDocument(String documentId) {
+        long started = DELETE_DOCUMENT.start();
+        DatabaseMutationEvent event = DatabaseMutationEvent.begin("deleteDocument", DOCUMENTS);
+        lock.writeLock().lock();
+        try {
+            if (documents.remove(documentId) == null) return CompletableFuture.completedFuture(null);
 
-            arr.put(obj);
-            save(root);
-            System.out.println("Request saved to database: " + r.getId());
-        } catch (org.json.JSONException e) {
-            System.err.println("Error adding request: " + e.getMessage());
+            return event.logged(log(WriteAheadLog.delete(DOCUMENTS, documentId)));
+        } finally {
+            lock.writeLock().unlock();
+            DELETE_DOCUMENT.stop(started);
+            event.commit();
         }
     }
 
     @Override
-    public void deleteRequest(String requestId) {
+    public CompletableFuture<Void> updateDocument(String documentId, Document d) {
+        long started = UPDATE_DOCUMENT.start();
+        DatabaseMutationEvent event = DatabaseMutationEvent.begin("updateDocument", DOCUMENTS);
+        lock.writeLock().lock();
         try {
-            JSONArray arr = root.optJSONArray("requests");
-            if (arr == null) return;
-            
-            JSONArray newArr = new JSONArray();
+            if (!documents.contains(documentId)) return CompletableFuture.completedFuture(null);
 
-            for (int i = 0; i < arr.length(); i++) {
-                JSONObject obj = arr.getJSONObject(i);
-                if (!obj.getString("id").equals(requestId)) {
-                    newArr.put(obj);
-                }
-            }
+            documents.put(d);
+            CompletableFuture<Void> durable = event.logged(log(WriteAheadLog.put(DOCUMENTS, documents.toJson(d))));
+            LOG.debug("Document updated", "id", documentId);
+            return durable;
+        } catch (JSONException e) {
+            LOG.error("Error updating document", "id", documentId, e);
+            return CompletableFuture.failedFuture(e);
+        } finally {
+            lock.writeLock().unlock();
+            UPDATE_DOCUMENT.stop(started);
+            event.commit();
+        }
+    }
 
-            root.put("requests", newArr);
-            save(root);
-        } catch (org.json.JSONException e) {
-            System.err.println("Error deleting request: " + e.getMessage());
+    @Override
+    public CompletableFuture<Void> addRequest(ServiceRequest r) {
+        long started = ADD_REQUEST.start();
+        DatabaseMutationEvent event = DatabaseMutationEvent.begin("addRequest", REQUESTS);
+        lock.writeLock().lock();
+        try {
+            requests.put(r);
+            CompletableFuture<Void> durable = event.logged(log(WriteAheadLog.put(REQUESTS, requests.toJson(r))));
+            LOG.debug("Request saved", "id", r.getId());
+            return durable;
+        } catch (JSONException e) {
+            LOG.error("Error adding request", e);
+            return CompletableFuture.failedFuture(e);
+        } finally {
+            lock.writeLock().unlock();
+            ADD_REQUEST.stop(started);
+            event.commit();
         }
     }
 
     @Override
-    public void updateRequest(String requestId, ServiceRequest r) {
+    public CompletableFuture<Void> deleteRequest(String requestId) {
+        long started = DELETE_REQUEST.start();
+        DatabaseMutationEvent event = DatabaseMutationEvent.begin("deleteRequest", REQUESTS);
+        lock.writeLock().lock();
         try {
-            JSONArray arr = root.optJSONArray("requests");
-            if (arr == null) return;
+            if (requests.remove(requestId) == null) return CompletableFuture.completedFuture(null);
 
-            for (int i = 0; i < arr.length(); i++) {
-                JSONObject obj = arr.getJSONObject(i);
-                if (obj.getString("id").equals(requestId)) {
-                    obj.put("status", r.getStatus().name());
-                    obj.put("adminNote", r.getAdminNote());
-                    break;
-                }
-            }
+            return event.logged(log(WriteAheadLog.delete(REQUESTS, requestId)));
+        } finally {
+            lock.writeLock().unlock();
+            DELETE_REQUEST.stop(started);
+            event.commit();
+        }
+    }
 
-            save(root);
-            System.out.println("Request updated in database: " + requestId);
-        } catch (org.json.JSONException e) {
-            System.err.println("Error updating request: " + e.getMessage());
+    @Override
+    public CompletableFuture<Void> updateRequest(String requestId, ServiceRequest r) {
+        long started = UPDATE_REQUEST.start();
+        DatabaseMutationEvent event = DatabaseMutationEvent.begin("updateRequest", REQUESTS);
+        lock.writeLock().lock();
+        try {
+            if (!requests.contains(requestId)) return CompletableFuture.completedFuture(null);
+
+            requests.put(r);
+            CompletableFuture<Void> durable = event.logged(log(WriteAheadLog.put(REQUESTS, requests.toJson(r))));
+            LOG.debug("Request updated", "id", requestId);
+            return durable;
+        } catch (JSONException e) {
+            LOG.error("Error updating request", "id", requestId, e);
+            return CompletableFuture.failedFuture(e);
+        } finally {
+            lock.writeLock().unlock();
+            UPDATE_REQUEST.stop(started);
+            event.commit();
         }
     }
 
     @Override
-    public List<JSONObject> getAllCitizens() {
-        JSONArray arr = root.optJSONArray("citizens");
-        List<JSONObject> list = new ArrayList<>();
-        
-        if (arr != null) {
-            for (int i = 0; i < arr.length(); i++) {
-                try {
-                    list.add(arr.getJSONObject(i));
-                } catch (org.json.JSONException e) {
-                    System.err.println("Error reading citizen: " + e.getMessage());
-                }
-            }
+    public List<Citizen> getAllCitizens() {
+        long started = GET_ALL_CITIZENS.start();
+        DatabaseLookupEvent event = DatabaseLookupEvent.begin("getAllCitizens", CITIZENS);
+        lock.readLock().lock();
+        try {
+            return event.found(new ArrayList<>(citizens.values()));
+        } finally {
+            lock.readLock().unlock();
+            GET_ALL_CITIZENS.stop(started);
+            event.commit();
         }
-        
-        return list;
     }
 
     @Override
-    public List<JSONObject> getAllDocuments() {
-        JSONArray arr = root.optJSONArray("documents");
-        List<JSONObject> list = new ArrayList<>();
-        
-        if (arr != null) {
-            for (int i = 0; i < arr.length(); i++) {
-                try {
-                    JSONObject doc = arr.getJSONObject(i);
-                    if (!doc.has("requestId") && doc.has("attachedRequestId")) {
-                        doc.put("requestId", doc.get("attachedRequestId"));
-                    }
-                    list.add(doc);
-                } catch (org.json.JSONException e) {
-                    System.err.println("Error reading document: " + e.getMessage());
-                }
-            }
+    public List<Document> getAllDocuments() {
+        long started = GET_ALL_DOCUMENTS.start();
+        DatabaseLookupEvent event = DatabaseLookupEvent.begin("getAllDocuments", DOCUMENTS);
+        lock.readLock().lock();
+        try {
+            return event.found(new ArrayList<>(documents.values()));
+        } finally {
+            lock.readLock().unlock();
+            GET_ALL_DOCUMENTS.stop(started);
+            event.commit();
         }
-        
-        return list;
     }
 
     @Override
-    public List<JSONObject> getAllRequests() {
-        JSONArray arr = root.optJSONArray("requests");
-        List<JSONObject> list = new ArrayList<>();
-        
-        if (arr != null) {
-            for (int i = 0; i < arr.length(); i++) {
-                try {
-                    list.add(arr.getJSONObject(i));
-                } catch (org.json.JSONException e) {
-                    System.err.println("Error reading request: " + e.getMessage());
-                }
-            }
+    public List<ServiceRequest> getAllRequests() {
+        long started = GET_ALL_REQUESTS.start();
+        DatabaseLookupEvent event = DatabaseLookupEvent.begin("getAllRequests", REQUESTS);
+        lock.readLock().lock();
+        try {
+            return event.found(new ArrayList<>(requests.values()));
+        } finally {
+            lock.readLock().unlock();
+            GET_ALL_REQUESTS.stop(started);
+            event.commit();
         }
-        
-        return list;
     }
 
-    public List<JSONObject> getRequestsByCitizenId(String citizenId) {
-        JSONArray arr = root.optJSONArray("requests");
-        List<JSONObject> list = new ArrayList<>();
-        
-        if (arr != null) {
-            for (int i = 0; i < arr.length(); i++) {
-                try {
-                    JSONObject obj = arr.getJSONObject(i);
-                    if (obj.optString("citizenId", "").equals(citizenId)) {
-                        list.add(obj);
-                    }
-                } catch (org.json.JSONException e) {
-                    System.err.println("Error reading request: " + e.getMessage());
-                }
-            }
+    /**
+     * A page of citizens. Citizens can only be ordered by id.
+     */
+    public Page<Citizen> getCitizensPage(PageRequest request) {
+        return getPage(citizens, request);
+    }
+
+    public Page<ServiceRequest> getRequestsPage(PageRequest request) {
+        return getPage(requests, request);
+    }
+
+    public Page<Document> getDocumentsPage(PageRequest request) {
+        return getPage(documents, request);
+    }
+
+    public Page<Archive> getArchivesPage(PageRequest request) {
+        return getPage(archives, request);
+    }
+
+    /**
+     * Citizens whose name, email, phone number or id contain the words of
+     * {@code query}, best match first: whole words before prefixes before
+     * substrings.
+     */
+    public List<Citizen> searchCitizens(String query, int limit) {
+        long started = SEARCH_CITIZENS.start();
+        DatabaseLookupEvent event = DatabaseLookupEvent.begin("searchCitizens", CITIZENS);
+        lock.readLock().lock();
+        try {
+            return event.found(citizens.search("search", query, limit));
+        } finally {
+            lock.readLock().unlock();
+            SEARCH_CITIZENS.stop(started);
+            event.commit();
         }
-        
-        return list;
     }
 
-    public List<JSONObject> getDocumentsByRequestId(String requestId) {
-        JSONArray arr = root.optJSONArray("documents");
-        List<JSONObject> list = new ArrayList<>();
-        
-        if (arr != null) {
-            for (int i = 0; i < arr.length(); i++) {
-                try {
-                    JSONObject obj = arr.getJSONObject(i);
-                    String docRequestId = obj.optString("requestId", obj.optString("attachedRequestId", ""));
-                    if (docRequestId.equals(requestId)) {
-                        list.add(obj);
-                    }
-                } catch (org.json.JSONException e) {
-                    System.err.println("Error reading document: " + e.getMessage());
-                }
-            }
+    public Citizen getCitizenById(String citizenId) {
+        long started = GET_CITIZEN_BY_ID.start();
+        DatabaseLookupEvent event = DatabaseLookupEvent.begin("getCitizenById", CITIZENS);
+        lock.readLock().lock();
+        try {
+            return event.found(citizens.get(citizenId));
+        } finally {
+            lock.readLock().unlock();
+            GET_CITIZEN_BY_ID.stop(started);
+            event.commit();
         }
-        
-        return list;
     }
 
-    public List<JSONObject> getDocumentsByCitizenId(String citizenId) {
-        JSONArray arr = root.optJSONArray("documents");
-        List<JSONObject> list = new ArrayList<>();
-        
-        if (arr != null) {
-            for (int i = 0; i < arr.length(); i++) {
-                try {
-                    JSONObject obj = arr.getJSONObject(i);
-                    if (!obj.has("requestId") && obj.has("attachedRequestId")) {
-                        obj.put("requestId", obj.get("attachedRequestId"));
-                    }
-                    if (obj.optString("citizenId", "").equals(citizenId)) {
-                        list.add(obj);
-                    }
-                } catch (org.json.JSONException e) {
-                    System.err.println("Error reading document: " + e.getMessage());
-                }
-            }
+    /**
+     * Citizen with the given email, compared case-insensitively and
+     * ignoring surrounding whitespace, or null.
+     */
+    public Citizen findCitizenByEmail(String email) {
+        String key = normalizeEmail(email);
+        if (key.isEmpty()) return null;
+
+        long started = FIND_CITIZEN_BY_EMAIL.start();
+        DatabaseLookupEvent event = DatabaseLookupEvent.begin("findCitizenByEmail", CITIZENS);
+        lock.readLock().lock();
+        try {
+            return event.found(citizens.lookupFirst("email", key));
+        } finally {
+            lock.readLock().unlock();
+            FIND_CITIZEN_BY_EMAIL.stop(started);
+            event.commit();
         }
-        
-        return list;
     }
 
-    public List<JSONObject> reloadAllRequests() {
+    /**
+     * Number of requests per key of one of the COUNT_BY_ counters. The
+     * counters are kept up to date on every change, so this does not scan
+     * the requests.
+     */
+    public SortedMap<String, Integer> getRequestCounts(String counter) {
+        lock.readLock().lock();
         try {
-            String text = Files.readString(Path.of(DB_PATH));
-            JSONObject obj = new JSONObject(text);
-            JSONArray arr = obj.optJSONArray("requests");
-            List<JSONObject> list = new ArrayList<>();
-            
-            if (arr != null) {
-                for (int i = 0; i < arr.length(); i++) {
-                    try {
-                        list.add(arr.getJSONObject(i));
-                    } catch (org.json.JSONException e) {
-                        System.err.println("Error reading request: " + e.getMessage());
-                    }
-                }
-            }
-            
-            return list;
-        } catch (IOException e) {
-            System.err.println("Error reloading requests: " + e.getMessage());
-            return new ArrayList<>();
+            return requests.counts(counter);
+        } finally {
+            lock.readLock().unlock();
         }
     }
-    
-    public void addToArchive(Archive a) {
+
+    /**
+     * Number of documents per status ({@link #COUNT_BY_STATUS}) or per
+     * upload day ({@link #COUNT_BY_DAY}).
+     */
+    public SortedMap<String, Integer> getDocumentCounts(String counter) {
+        lock.readLock().lock();
         try {
-            JSONArray arr = root.optJSONArray("archives");
-            if (arr == null) {
-                arr = new JSONArray();
-                root.put("archives", arr);
-            }
+            return documents.counts(counter);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
 
-            JSONObject obj = new JSONObject();
-            obj.put("archiveId", a.getArchiveId());
-            obj.put("entityId", a.getEntityId());
-            obj.put("type", a.getType().name());
-            obj.put("details", a.getDetails());
-            obj.put("archivedAt", a.getArchivedAt().toString());
-            obj.put("archivedBy", a.getArchivedBy());
-            obj. put("reason", a.getReason());
-
-            arr.put(obj);
-            save(root);
-            System.out.println("✓ Archived: " + a.getArchiveId());
-        } catch (org.json.JSONException e) {
-            System.err.println("Error archiving: " + e.getMessage());
-        }
-    }
-
-    public List<JSONObject> getAllArchives() {
-        JSONArray arr = root.optJSONArray("archives");
-        List<JSONObject> list = new ArrayList<>();
-        
-        if (arr != null) {
-            for (int i = 0; i < arr.length(); i++) {
-                try {
-                    list.add(arr.getJSONObject(i));
-                } catch (org.json.JSONException e) {
-                    System.err. println("Error reading archive: " + e.getMessage());
-                }
-            }
+    public int getCitizenCount() {
+        lock.readLock().lock();
+        try {
+            return citizens.size();
+        } finally {
+            lock.readLock().unlock();
         }
-        
-        return list;
     }
 
-    public List<JSONObject> getArchivesByType(String type) {
-        JSONArray arr = root. optJSONArray("archives");
-        List<JSONObject> list = new ArrayList<>();
-        
-        if (arr != null) {
-            for (int i = 0; i < arr.length(); i++) {
-                try {
-                    JSONObject obj = arr.getJSONObject(i);
-                    if (obj.optString("type", "").equals(type)) {
-                        list.add(obj);
-                    }
-                } catch (org.json.JSONException e) {
-                    System.err.println("Error reading archive: " + e.getMessage());
-                }
-            }
+    /**
+     * Citizen with exactly the given phone number, or null.
+     */
+    public Citizen findCitizenByNumber(String number) {
+        if (number == null || number.isEmpty()) return null;
+
+        long started = FIND_CITIZEN_BY_NUMBER.start();
+        DatabaseLookupEvent event = DatabaseLookupEvent.begin("findCitizenByNumber", CITIZENS);
+        lock.readLock().lock();
+        try {
+            return event.found(citizens.lookupFirst("number", number));
+        } finally {
+            lock.readLock().unlock();
+            FIND_CITIZEN_BY_NUMBER.stop(started);
+            event.commit();
         }
-        
-        return list;
     }
 
-    public void archiveCitizen(String citizenId, String reason) {
+    public List<ServiceRequest> getRequestsByCitizenId(String citizenId) {
+        long started = GET_REQUESTS_BY_CITIZEN_ID.start();
+        DatabaseLookupEvent event = DatabaseLookupEvent.begin("getRequestsByCitizenId", REQUESTS);
+        lock.readLock().lock();
         try {
-            JSONArray citizens = root.optJSONArray("citizens");
-            JSONObject citizenData = null;
-            
-            if (citizens != null) {
-                for (int i = 0; i < citizens.length(); i++) {
-                    JSONObject obj = citizens.getJSONObject(i);
-                    if (obj. getString("id").equals(citizenId)) {
-                        citizenData = new JSONObject(obj. toString());
-                        break;
-                    }
-                }
-            }
+            return event.found(requests.lookup("citizenId", citizenId));
+        } finally {
+            lock.readLock().unlock();
+            GET_REQUESTS_BY_CITIZEN_ID.stop(started);
+            event.commit();
+        }
+    }
+
+    /**
+     * Requests of the citizen with exactly this id, or else of up to
+     * {@code limit} citizens whose ids start with it, for search as you type.
+     */
+    public List<ServiceRequest> findRequestsByCitizenId(String citizenIdOrPrefix, int limit) {
+        long started = FIND_REQUESTS_BY_CITIZEN_ID.start();
+        DatabaseLookupEvent event = DatabaseLookupEvent.begin("findRequestsByCitizenId", REQUESTS);
+        lock.readLock().lock();
+        try {
+            return event.found(exactOrPrefix(requests, "citizenId", citizenIdOrPrefix, limit));
+        } finally {
+            lock.readLock().unlock();
+            FIND_REQUESTS_BY_CITIZEN_ID.stop(started);
+            event.commit();
+        }
+    }
+
+    /**
+     * Documents of the citizen with exactly this id, or else up to
+     * {@code limit} documents of citizens whose ids start with it.
+     */
+    public List<Document> findDocumentsByCitizenId(String citizenIdOrPrefix, int limit) {
+        long started = FIND_DOCUMENTS_BY_CITIZEN_ID.start();
+        DatabaseLookupEvent event = DatabaseLookupEvent.begin("findDocumentsByCitizenId", DOCUMENTS);
+        lock.readLock().lock();
+        try {
+            return event.found(exactOrPrefix(documents, "citizenId", citizenIdOrPrefix, limit));
+        } finally {
+            lock.readLock().unlock();
+            FIND_DOCUMENTS_BY_CITIZEN_ID.stop(started);
+            event.commit();
+        }
+    }
+
+    /**
+     * The document with exactly this id, or else up to {@code limit}
+     * documents whose ids start with it.
+     */
+    public List<Document> findDocumentsById(String idOrPrefix, int limit) {
+        long started = FIND_DOCUMENTS_BY_ID.start();
+        DatabaseLookupEvent event = DatabaseLookupEvent.begin("findDocumentsById", DOCUMENTS);
+        lock.readLock().lock();
+        try {
+            Document exact = documents.get(idOrPrefix);
+            return event.found(exact != null
+                ? new ArrayList<>(List.of(exact))
+                : documents.prefix(PageRequest.BY_ID, idOrPrefix, limit));
+        } finally {
+            lock.readLock().unlock();
+            FIND_DOCUMENTS_BY_ID.stop(started);
+            event.commit();
+        }
+    }
+
+    // Hash index for an exact key, a range of the sorted order of the same name for a prefix
+    private static <T> List<T> exactOrPrefix(Table<T> table, String key, String value, int limit) {
+        List<T> exact = table.lookup(key, value);
+        return exact.isEmpty() ? table.prefix(key, value, limit) : exact;
+    }
 
-            if (citizenData == null) return;
+    public List<Document> getDocumentsByRequestId(String requestId) {
+        long started = GET_DOCUMENTS_BY_REQUEST_ID.start();
+        DatabaseLookupEvent event = DatabaseLookupEvent.begin("getDocumentsByRequestId", DOCUMENTS);
+        lock.readLock().lock();
+        try {
+            return event.found(documents.lookup("requestId", requestId));
+        } finally {
+            lock.readLock().unlock();
+            GET_DOCUMENTS_BY_REQUEST_ID.stop(started);
+            event.commit();
+        }
+    }
+
+    public List<Document> getDocumentsByCitizenId(String citizenId) {
+        long started = GET_DOCUMENTS_BY_CITIZEN_ID.start();
+        DatabaseLookupEvent event = DatabaseLookupEvent.begin("getDocumentsByCitizenId", DOCUMENTS);
+        lock.readLock().lock();
+        try {
+            return event.found(documents.lookup("citizenId", citizenId));
+        } finally {
+            lock.readLock().unlock();
+            GET_DOCUMENTS_BY_CITIZEN_ID.stop(started);
+            event.commit();
+        }
+    }
+
+    public List<ServiceRequest> reloadAllRequests() {
+        // The collection files may lag behind the write-ahead log, so the in-memory copy is authoritative
+        return getAllRequests();
+    }
 
-            String archiveId = "ARCH-" + citizenId + "-" + System.currentTimeMillis();
-            Archive archive = new Archive(archiveId, citizenId, Archive. ArchiveType.DELETED_CITIZEN, 
+    public CompletableFuture<Void> addToArchive(Archive a) {
+        long started = ADD_TO_ARCHIVE.start();
+        DatabaseMutationEvent event = DatabaseMutationEvent.begin("addToArchive", ARCHIVES);
+        lock.writeLock().lock();
+        try {
+            archives.put(a);
+            CompletableFuture<Void> durable = event.logged(log(WriteAheadLog.put(ARCHIVES, archives.toJson(a))));
+            LOG.debug("Archived", "id", a.getArchiveId());
+            return durable;
+        } catch (JSONException e) {
+            LOG.error("Error archiving", e);
+            return CompletableFuture.failedFuture(e);
+        } finally {
+            lock.writeLock().unlock();
+            ADD_TO_ARCHIVE.stop(started);
+            event.commit();
+        }
+    }
+
+    public List<Archive> getAllArchives() {
+        long started = GET_ALL_ARCHIVES.start();
+        DatabaseLookupEvent event = DatabaseLookupEvent.begin("getAllArchives", ARCHIVES);
+        lock.readLock().lock();
+        try {
+            return event.found(new ArrayList<>(archives.values()));
+        } finally {
+            lock.readLock().unlock();
+            GET_ALL_ARCHIVES.stop(started);
+            event.commit();
+        }
+    }
+
+    public List<Archive> getArchivesByType(String type) {
+        long started = GET_ARCHIVES_BY_TYPE.start();
+        DatabaseLookupEvent event = DatabaseLookupEvent.begin("getArchivesByType", ARCHIVES);
+        lock.readLock().lock();
+        try {
+            return event.found(archives.lookup("type", type));
+        } finally {
+            lock.readLock().unlock();
+            GET_ARCHIVES_BY_TYPE.stop(started);
+            event.commit();
+        }
+    }
+
+    public CompletableFuture<Void> archiveCitizen(String citizenId, String reason) {
+        long started = ARCHIVE_CITIZEN.start();
+        DatabaseMutationEvent event = DatabaseMutationEvent.begin("archiveCitizen", CITIZENS);
+        // May wait for a durable reservation, so taken before the lock
+        String archiveId = nextArchiveId();
+        lock.writeLock().lock();
+        try {
+            Citizen citizen = citizens.get(citizenId);
+            if (citizen == null) return CompletableFuture.completedFuture(null);
+
+            JSONObject citizenData = citizens.toJson(citizen);
+
+            Archive archive = new Archive(archiveId, citizenId, Archive.ArchiveType.DELETED_CITIZEN,
                                         citizenData.toString(), "ADMIN");
             archive.setReason(reason);
-            addToArchive(archive);
-
-            deleteCitizen(citizenId);
-            System.out.println("✓ Citizen archived and deleted: " + citizenId);
-        } catch (org.json.JSONException e) {
-            System.err.println("Error archiving citizen: " + e.getMessage());
+            CompletableFuture<Void> archived = event.logged(addToArchive(archive));
+            CompletableFuture<Void> deleted = event.logged(deleteCitizen(citizenId));
+            LOG.info("Citizen archived and deleted", "id", citizenId, "reason", reason);
+            return CompletableFuture.allOf(archived, deleted);
+        } catch (JSONException e) {
+            LOG.error("Error archiving citizen", "id", citizenId, e);
+            return CompletableFuture.failedFuture(e);
+        } finally {
+            lock.writeLock().unlock();
+            ARCHIVE_CITIZEN.stop(started);
+            event.commit();
         }
     }
 
-    public JSONObject getArchiveById(String archiveId) {
-        JSONArray arr = root.optJSONArray("archives");
-        
-        if (arr != null) {
-            for (int i = 0; i < arr.length(); i++) {
-                try {
-                    JSONObject obj = arr.getJSONObject(i);
-                    if (obj. optString("archiveId", "").equals(archiveId)) {
-                        return obj;
-                    }
-                } catch (org.json.JSONException e) {
-                    System.err.println("Error reading archive: " + e.getMessage());
-                }
-            }
+    public Archive getArchiveById(String archiveId) {
+        long started = GET_ARCHIVE_BY_ID.start();
+        DatabaseLookupEvent event = DatabaseLookupEvent.begin("getArchiveById", ARCHIVES);
+        lock.readLock().lock();
+        try {
+            return event.found(archives.get(archiveId));
+        } finally {
+            lock.readLock().unlock();
+            GET_ARCHIVE_BY_ID.stop(started);
+            event.commit();
         }
-        
-        return null;
     }
 
-    public JSONObject getArchiveByEntityId(String entityId, String type) {
-        JSONArray arr = root.optJSONArray("archives");
-        
-        if (arr != null) {
-            for (int i = 0; i < arr.length(); i++) {
-                try {
-                    JSONObject obj = arr.getJSONObject(i);
-                    if (obj.optString("entityId", "").equals(entityId) && 
-                        obj.optString("type", "").equals(type)) {
-                        return obj;
-                    }
-                } catch (org.json.JSONException e) {
-                    System.err.println("Error reading archive: " + e.getMessage());
-                }
-            }
+    public Archive getArchiveByEntityId(String entityId, String type) {
+        long started = GET_ARCHIVE_BY_ENTITY_ID.start();
+        DatabaseLookupEvent event = DatabaseLookupEvent.begin("getArchiveByEntityId", ARCHIVES);
+        lock.readLock().lock();
+        try {
+            return event.found(archives.lookupFirst("entity", entityKey(entityId, type)));
+        } finally {
+            lock.readLock().unlock();
+            GET_ARCHIVE_BY_ENTITY_ID.stop(started);
+            event.commit();
         }
-        
-        return null;
     }
-}
\ No newline at end of file
+}
@@ -1,20 +1,23 @@
 package com.govagency;
 
-import java.util.HashMap;
-import java.util.Map;
-
-import org.json.JSONObject;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
 
 import com.govagency.controller.LoginController;
 import com.govagency.controller.MainController;
+import com.govagency.logging.Logging;
 import com.govagency.model.Citizen;
+import com.govagency.util.BackgroundTasks;
 import com.govagency.util.CustomDialog;
 
 import javafx.application.Application;
+import javafx.application.Platform;
+import javafx.concurrent.Task;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
+import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
 import javafx.scene.image.Image;
 import javafx.scene.layout.HBox;
@@ -31,20 +34,58 @@ public class MainApp extends Application {
     private double yOffset = 0;
 
     private Stage primaryStage;
-    private final Map<String, Citizen> citizenMap = new HashMap<>();
     private LocalDatabase database;
+    private Task<LocalDatabase> opening;
+    private LoginController loginController;
 
     private static final String DARK_BG = "#0d1117";
     private static final String ACCENT_CYAN = "#00ffff";
     private static final String ERROR_RED = "#ff5555";
 
+    @Override
+    public void stop() {
+        // Shutting the pool down first would interrupt a replay still in progress
+        LocalDatabase db = openedDatabase();
+        BackgroundTasks.shutdown();
+        if (db != null) {
+            // Blocks until every queued write is on disk and the final checkpoint is written
+            db.close();
+        }
+        Logging.shutdown();
+    }
+
+    // The database, waiting for it if it is still being opened; its success handler will not run any more
+    private LocalDatabase openedDatabase() {
+        if (database != null || opening == null) return database;
+        try {
+            return opening.get();
+        } catch (ExecutionException | CancellationException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
     @Override
     public void start(Stage primaryStage) {
         this.primaryStage = primaryStage;
-        loadCitizens();
         primaryStage.getIcons().add(new Image(getClass().getResourceAsStream("/com/govagency/govicon1.png")));
         primaryStage.initStyle(StageStyle.TRANSPARENT);
         showLoginScreen();
+        openDatabase();
+    }
+
+    // Replaying the log can take a while; show the login screen in the meantime
+    private void openDatabase() {
+        opening = BackgroundTasks.submit(progress -> LocalDatabase.open(), db -> {
+            database = db;
+            loginController.setDatabase(db);
+        }, error -> {
+            Alert alert = new Alert(Alert.AlertType.ERROR, "Could not open the database: " + error.getMessage());
+            alert.showAndWait();
+            Platform.exit();
+        });
     }
 
     private VBox createTinyTopBar() {
@@ -98,28 +139,8 @@ public class MainApp extends Application {
         return btn;
     }
 
-    private void loadCitizens() {
-        citizenMap.clear();
-        database = new LocalDatabase();
-        for (JSONObject obj : database.getAllCitizens()) {
-            try {
-                String id = obj.getString("id");
-                String name = obj.getString("name");
-                String email = obj.getString("email");
-                String number = obj.getString("number");
-                String password = obj.optString("password", "password");
-
-                Citizen c = new Citizen(id, name, number, email, password);
-                citizenMap.put(id, c);
-            } catch (org.json.JSONException e) {
-                System.err.println("Error loading citizen: " + e.getMessage());
-            }
-        }
-    }
-
     public void showLoginScreen() {
-        loadCitizens();
-        LoginController loginController = new LoginController(this, citizenMap);
+        loginController = new LoginController(this, database);
         Parent loginView = (Parent) loginController.getView();
 
         VBox root = new VBox();
@@ -150,7 +171,7 @@ public class MainApp extends Application {
     }
 
     public void showMainApp(boolean isAdmin, Citizen citizen) {
-        MainController controller = new MainController(isAdmin, citizen, citizenMap, primaryStage, this);
+        MainController controller = new MainController(isAdmin, citizen, database, primaryStage, this);
         Parent mainView = (Parent) controller.getView();
 
         VBox root = new VBox();
@@ -1,8 +1,13 @@
 package com.govagency.controller;
 
-import java. util.Map;
-
+import com.govagency.LocalDatabase;
 import com.govagency.MainApp;
+import com.govagency.logging.Logger;
+import com.govagency.logging.Logging;
+import com.govagency.metrics.Counter;
+import com.govagency.metrics.Metrics;
+import com.govagency.metrics.Timer;
+import com.govagency.metrics.jfr.LoginEvent;
 import com.govagency.model.Citizen;
 
 import javafx.animation.FadeTransition;
@@ -31,7 +36,13 @@ public class LoginController {
 
     private final StackPane root;
     private final MainApp mainApp;
-    private final Map<String, Citizen> citizenMap;
+    private LocalDatabase database;
+
+    private static final Logger LOG = Logging.logger("ui.login");
+
+    private static final Timer LOGIN = Metrics.timer("ui.login");
+    private static final Counter LOGIN_SUCCESSES = Metrics.counter("ui.login.success");
+    private static final Counter LOGIN_FAILURES = Metrics.counter("ui.login.failure");
 
     private static final String DARK_BG = "#0d1117";
     private static final String CARD_BG = "#161b22";
@@ -49,9 +60,9 @@ public class LoginController {
     private PasswordField passwordField;
     private Button loginButton;
 
-    public LoginController(MainApp mainApp, Map<String, Citizen> citizenMap) {
+    public LoginController(MainApp mainApp, LocalDatabase database) {
         this.mainApp = mainApp;
-        this.citizenMap = citizenMap;
+        this.database = database;
 
         root = new StackPane();
         root.setStyle("-fx-background-color: " + DARK_BG + ";");
@@ -371,6 +382,13 @@ public class LoginController {
         return button;
     }
 
+    /**
+     * The database opens in the background; logins wait until it is set.
+     */
+    public void setDatabase(LocalDatabase database) {
+        this.database = database;
+    }
+
     private void handleKeyPress(KeyEvent event) {
         if (event. getCode() == KeyCode.ENTER) {
             handleLogin();
@@ -387,51 +405,63 @@ public class LoginController {
             return;
         }
 
+        if (database == null) {
+            showError("⏳ Still loading data, please wait...");
+            return;
+        }
+
+        // Timed up to the portal being built, which is what the user waits for
+        long started = LOGIN.start();
+        LoginEvent event = new LoginEvent();
+        event.role = "admin".equalsIgnoreCase(email) ? "admin" : "citizen";
+        event.begin();
+        try {
+            if (authenticate(email, passwordInput)) {
+                LOGIN_SUCCESSES.increment();
+                event.succeeded = true;
+            } else {
+                LOGIN_FAILURES.increment();
+            }
+        } finally {
+            LOGIN.stop(started);
+            event.commit();
+            // Never the email or password, only who tried and whether it worked
+            LOG.info("Login attempt", "role", event.role, "succeeded", event.succeeded);
+        }
+    }
+
+    // Shows the outcome and opens the portal on success
+    private boolean authenticate(String email, String passwordInput) {
         if ("admin".equalsIgnoreCase(email)) {
             if ("123". equals(passwordInput)) {
                 showSuccess("✅ Admin login successful!");
                 mainApp.showMainApp(true, null);
-            } else {
-                showError("❌ Invalid admin password.");
-                passwordField.clear();
+                return true;
             }
+            showError("❌ Invalid admin password.");
+            passwordField.clear();
+            return false;
         }
         else {
-            System.out.println("Total citizens in map: " + citizenMap. size());
-            for (Citizen c : citizenMap.values()) {
-                System.out.println("Citizen: " + c. getEmail() + " (ID: " + c.getId() + ")");
-            }
-            System. out.println("Looking for email: " + email);
-
-            Citizen citizen = null;
-            
-            for (Citizen c : citizenMap.values()) {
-                if (c.getEmail().trim(). toLowerCase().equals(email)) {
-                    citizen = c;
-                    break;
-                }
-            }
+            Citizen citizen = database.findCitizenByEmail(email);
 
             if (citizen != null) {
-                System.out.println("Found citizen: " + citizen.getName());
-                System.out.println("Stored password: '" + citizen.getPassword() + "'");
-                System. out.println("Entered password: '" + passwordInput + "'");
-                
                 boolean passwordMatches = citizen.getPassword().equals(passwordInput);
                 boolean phoneMatches = citizen.getNumber().trim().equals(passwordInput);
                 
                 if (passwordMatches || phoneMatches) {
                     showSuccess("✅ Welcome, " + citizen.getName() + "!");
                     mainApp.showMainApp(false, citizen);
-                } else {
-                    showError("❌ Invalid credentials.\n\nPlease check your email and password.");
-                    passwordField. clear();
+                    return true;
                 }
-            } else {
                 showError("❌ Invalid credentials.\n\nPlease check your email and password.");
-                usernameField.clear();
-                passwordField.clear();
+                passwordField. clear();
+                return false;
             }
+            showError("❌ Invalid credentials.\n\nPlease check your email and password.");
+            usernameField.clear();
+            passwordField.clear();
+            return false;
         }
     }
 
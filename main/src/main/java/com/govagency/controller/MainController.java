@@ -1,29 +1,53 @@
 package com.govagency.controller;
 
 import java.io.File;
+import java.nio.file.Path;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.function.Consumer;
+import java.util.function.Function;
 
 import org.json.JSONException;
 import org.json.JSONObject;
 
 import com.govagency.LocalDatabase;
 import com.govagency.MainApp;
+import com.govagency.logging.Logger;
+import com.govagency.logging.Logging;
+import com.govagency.metrics.Metrics;
+import com.govagency.metrics.Timer;
+import com.govagency.metrics.jfr.ViewLoadEvent;
+import com.govagency.metrics.jfr.ViewRenderEvent;
+import com.govagency.model.Archive;
 import com.govagency.model.Citizen;
 import com.govagency.model.Document;
 import com.govagency.model.ServiceRequest;
-import com.govagency.util.CitizenIdGenerator;
+import com.govagency.storage.ModelCodecs;
+import com.govagency.storage.Page;
+import com.govagency.storage.PageRequest;
+import com.govagency.storage.Table;
+import com.govagency.util.BackgroundTasks;
 import com.govagency.util.CustomDialog;
+import com.govagency.util.RecordTable;
+import com.govagency.util.ReportRenderer;
 import com.govagency.util.Validator;
 
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
 import javafx.animation.PauseTransition;
 import javafx.animation.ScaleTransition;
+import javafx.animation.Timeline;
 import javafx.application.Platform;
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.ObservableValue;
+import javafx.concurrent.Task;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Node;
@@ -35,6 +59,7 @@ import javafx.scene.control.ButtonType;
 import javafx.scene.control.ComboBox;
 import javafx.scene.control.Label;
 import javafx.scene.control.PasswordField;
+import javafx.scene.control.ProgressBar;
 import javafx.scene.control.ScrollPane;
 import javafx.scene.control.Separator;
 import javafx.scene.control.Tab;
@@ -64,8 +89,7 @@ import javafx.util.Duration;
 public class MainController {
 
     private final boolean isAdmin;
-    private final Citizen loggedInCitizen;
-    private final Map<String, Citizen> citizenMap;
+    private Citizen loggedInCitizen;
     private final LocalDatabase database;
     private final MainApp mainApp;
     private final Stage primaryStage;
@@ -77,6 +101,20 @@ public class MainController {
     private TextArea adminRequestsStatusArea;
     private TextArea adminDocumentsStatusArea;
 
+    private RecordTable<Citizen> citizensTable;
+    private RecordTable<ServiceRequest> requestsTable;
+    private RecordTable<Document> documentsTable;
+    private RecordTable<Archive> archivesTable;
+
+    // Dashboard tiles by key ("request:REQUESTED", "total:citizens", ...)
+    private final Map<String, Label> dashboardTiles = new HashMap<>();
+    private TextArea dashboardArea;
+    private Timeline dashboardRefresh;
+
+    private TextArea diagnosticsArea;
+    private TextArea diagnosticsStatusArea;
+    private Timeline diagnosticsRefresh;
+
     private double xOffset = 0;
     private double yOffset = 0;
 
@@ -91,71 +129,153 @@ public class MainController {
     private static final String INPUT_BG = "#0d1117";
     private static final String BORDER_COLOR = "#30363d";
 
-    private final List<ServiceRequest> serviceRequests = new ArrayList<>();
-    private final List<Document> documents = new ArrayList<>();
-
-    public MainController(boolean isAdmin, Citizen citizen, Map<String, Citizen> citizenMap, Stage primaryStage, MainApp mainApp) {
+    private static final int ADMIN_PAGE_SIZE = 100;
+    private static final int SEARCH_LIMIT = 200;
+    private static final Duration SEARCH_DEBOUNCE = Duration.millis(250);
+    private static final Duration DASHBOARD_REFRESH = Duration.seconds(2);
+    private static final int DASHBOARD_DAYS = 14;
+    // Metrics snapshots exported from the diagnostics tab
+    private static final Path METRICS_DIR = Path.of("metrics");
+
+    private static final Logger LOG = Logging.logger("ui");
+
+    private static final Timer LOAD_TIMER = Metrics.timer("ui.load");
+    private static final Timer REPORT_BUILD_TIMER = Metrics.timer("ui.report.build");
+    private static final Timer REPORT_SHOW_TIMER = Metrics.timer("ui.report.show");
+    private static final Timer DASHBOARD_TIMER = Metrics.timer("ui.dashboard.refresh");
+
+    private static final ReportRenderer.Template<ServiceRequest> REQUEST_REPORT_ROW =
+        ReportRenderer.Template.<ServiceRequest>builder()
+            .line("ID: ", ServiceRequest::getId)
+            .line("Type: ", ServiceRequest::getServiceType)
+            .line("Description: ", ServiceRequest::getDescription)
+            .text("Status: ")
+            .field((out, sr) -> out.append(ReportRenderer.statusEmoji(sr.getStatus().name()))
+                .append(' ').append(sr.getStatus().name()))
+            .text("\n")
+            .optionalLine("Admin Note: ", ServiceRequest::getAdminNote)
+            .build();
+
+    // The rows are finished per report, since they show the related requests and documents
+    private static final ReportRenderer.Template<Document> DOCUMENT_REPORT_ROW =
+        ReportRenderer.Template.<Document>builder()
+            .line("Document ID: ", Document::getId)
+            .line("Request ID: ", Document::getAttachedRequestId)
+            .line("File: ", Document::getFilePath)
+            .text("Status: ")
+            .field((out, doc) -> out.append(ReportRenderer.statusEmoji(doc.getStatus().name()))
+                .append(' ').append(doc.getStatus().name()))
+            .text("\nUploaded: ")
+            .field((out, doc) -> ReportRenderer.appendDateTime(out, doc.getUploadTime()))
+            .text("\n")
+            .optionalLine("Officer's Note: ", Document::getReviewComment)
+            .build();
+
+    // Loaded records, touched on the FX thread only. Documents are indexed
+    // by request so requests and their documents join without scanning.
+    private Table<ServiceRequest> serviceRequests = newRequestTable();
+    private Table<Document> documents = newDocumentTable();
+
+    // Background work: the record loads, and the report each status area is waiting for
+    private final List<Task<?>> loadTasks = new ArrayList<>();
+    private final Map<TextArea, Task<?>> pendingReports = new HashMap<>();
+    private Task<?> trackedTask;
+    private HBox activityBox;
+    private ProgressBar activityBar;
+
+    public MainController(boolean isAdmin, Citizen citizen, LocalDatabase database, Stage primaryStage, MainApp mainApp) {
         this.isAdmin = isAdmin;
         this. loggedInCitizen = citizen;
-        this.citizenMap = citizenMap != null ? citizenMap : new HashMap<>();
-        this.database = new LocalDatabase();
+        this.database = database;
         this.primaryStage = primaryStage;
         this.mainApp = mainApp;
+    }
 
-        loadDataFromDatabase();
+    /**
+     * Load the logged-in citizen's requests and documents in the background,
+     * straight from the database's per-citizen indexes, so login time does
+     * not grow with the rest of the agency's data. The portal stays
+     * disabled until they arrive, so no handler runs against half-loaded
+     * tables. Submissions and uploads are added to the tables as they happen.
+     */
+    private void loadDataFromDatabase(Node portal) {
+        loadInBackground(portal, "records", progress -> {
+            progress.message("Loading your records...");
+            String citizenId = loggedInCitizen.getId();
+            Table<ServiceRequest> requests = newRequestTable();
+            for (ServiceRequest sr : database.getRequestsByCitizenId(citizenId)) {
+                requests.put(sr);
+            }
+            Table<Document> docs = newDocumentTable();
+            for (Document doc : database.getDocumentsByCitizenId(citizenId)) {
+                docs.put(doc);
+            }
+            return new LoadedData(requests, docs);
+        }, data -> {
+            serviceRequests = data.requests;
+            documents = data.documents;
+        });
     }
 
-    private void loadDataFromDatabase() {
-        try {
-            for (JSONObject obj : database.getAllRequests()) {
-                try {
-                    String id = obj.getString("id");
-                    String citizenId = obj.getString("citizenId");
-                    String type = obj.getString("type");
-                    String description = obj.optString("description", "");
-                    String statusStr = obj.optString("status", "REQUESTED");
-                    String adminNote = obj.optString("adminNote", "");
-
-                    ServiceRequest sr = new ServiceRequest(id, citizenId, type, description);
-                    sr.setStatus(ServiceRequest.Status.valueOf(statusStr));
-                    sr.setAdminNote(adminNote);
-                    serviceRequests.add(sr);
-                } catch (JSONException | IllegalArgumentException | NullPointerException e) {
-                    System.err.println("Error loading individual request: " + e.getMessage());
+    /**
+     * Load the records an admin tab works on the first time the tab is
+     * shown, so opening the dashboard does not load the whole dataset.
+     */
+    private <T> void loadWhenFirstShown(Tab tab, String what, BackgroundTasks.Work<T> load, Consumer<T> onLoaded) {
+        if (tab.isSelected()) {
+            loadInBackground(tab.getContent(), what, load, onLoaded);
+            return;
+        }
+        tab.selectedProperty().addListener(new ChangeListener<Boolean>() {
+            @Override
+            public void changed(ObservableValue<? extends Boolean> obs, Boolean wasSelected, Boolean selected) {
+                if (selected) {
+                    tab.selectedProperty().removeListener(this);
+                    loadInBackground(tab.getContent(), what, load, onLoaded);
                 }
             }
-        } catch (JSONException | IllegalArgumentException | NullPointerException e) {
-            System.err.println("Error loading service requests: " + e.getMessage());
-        }
+        });
+    }
 
-        try {
-            for (JSONObject obj : database.getAllDocuments()) {
-                try {
-                    String id = obj.getString("id");
-                    String requestId = obj.optString("requestId", obj.optString("attachedRequestId", ""));
-                    String citizenId = obj.optString("citizenId", "");
-                    String filePath = obj.optString("filePath", "");
-                    String statusStr = obj.optString("status", "PENDING");
-
-                    if (id.isEmpty() || requestId.isEmpty() || citizenId.isEmpty() || filePath.isEmpty()) {
-                        System.err.println("Skipping document - missing required fields: " + id);
-                        continue;
-                    }
+    private <T> void loadInBackground(Node view, String what, BackgroundTasks.Work<T> load, Consumer<T> onLoaded) {
+        view.setDisable(true);
+        Task<T> task = BackgroundTasks.submit(timed(LOAD_TIMER, what, load), result -> {
+            ViewRenderEvent event = new ViewRenderEvent();
+            event.view = what;
+            event.records = recordCount(result);
+            event.begin();
+            onLoaded.accept(result);
+            view.setDisable(false);
+            event.commit();
+        }, error -> {
+            LOG.error("Error loading view", "view", what, error);
+            view.setDisable(false);
+        });
+        loadTasks.add(task);
+        trackProgress(task);
+    }
 
-                    Document doc = new Document(id, requestId, filePath, citizenId);
-                    doc.setStatus(Document.Status.valueOf(statusStr));
-                    documents.add(doc);
-                    
-                    System.out.println("✓ Loaded document: " + id);
-                } catch (JSONException | IllegalArgumentException | NullPointerException e){
-                    System. err.println("Error loading individual document: " + e.getMessage());
-                }
-            }
-        } catch (JSONException | IllegalArgumentException | NullPointerException e) {
-            System.err.println("Error loading documents collection: " + e.getMessage());
+    private static class LoadedData {
+        final Table<ServiceRequest> requests;
+        final Table<Document> documents;
+
+        LoadedData(Table<ServiceRequest> requests, Table<Document> documents) {
+            this.requests = requests;
+            this.documents = documents;
         }
     }
 
+    private static Table<ServiceRequest> newRequestTable() {
+        return new Table<>(ServiceRequest::getId)
+            .addIndex("citizenId", ServiceRequest::getCitizenId);
+    }
+
+    private static Table<Document> newDocumentTable() {
+        return new Table<>(Document::getId)
+            .addIndex("requestId", Document::getAttachedRequestId)
+            .addIndex("citizenId", Document::getCitizenId);
+    }
+
     public Node getView() {
         StackPane root = new StackPane();
         root.setStyle(
@@ -168,10 +288,10 @@ public class MainController {
 
         mainPane.setTop(createHeaderPane());
 
-        if (isAdmin) {
-            mainPane.setCenter(createAdminPortal());
-        } else {
-            mainPane.setCenter(createCitizenPortal());
+        Node portal = isAdmin ? createAdminPortal() : createCitizenPortal();
+        mainPane.setCenter(portal);
+        if (!isAdmin) {
+            loadDataFromDatabase(portal);
         }
 
         root.getChildren().add(mainPane);
@@ -229,9 +349,22 @@ public class MainController {
         HBox windowButtons = new HBox(5, minimizeBtn, closeBtn);
         windowButtons.setAlignment(Pos.CENTER_RIGHT);
 
+        activityBar = new ProgressBar();
+        activityBar.setPrefWidth(140);
+        Button cancelActivityBtn = createButton("✕", TEXT_GRAY);
+        cancelActivityBtn.setOnAction(e -> {
+            if (trackedTask != null) {
+                trackedTask.cancel();
+            }
+        });
+        activityBox = new HBox(5, activityBar, cancelActivityBtn);
+        activityBox.setAlignment(Pos.CENTER_RIGHT);
+        activityBox.setVisible(false);
+        activityBox.setManaged(false);
+
         Region spacer = new Region();
         HBox.setHgrow(spacer, Priority.ALWAYS);
-        titleBox.getChildren().addAll(titleSection, spacer, logoutBtn, windowButtons);
+        titleBox.getChildren().addAll(titleSection, spacer, activityBox, logoutBtn, windowButtons);
 
         header.getChildren().add(titleBox);
 
@@ -252,7 +385,8 @@ public class MainController {
         CustomDialog dialog = new CustomDialog();
         dialog.showAndWait("Logout", "Are you sure you want to log out?", "/com/govagency/govicon1.png");
         if (dialog.isConfirmed()) {
-            System.out.println("User logged out successfully.");
+            cancelBackgroundWork();
+            LOG.info("User logged out");
             mainApp.showLoginScreen();
         }
     }
@@ -352,17 +486,15 @@ public class MainController {
                 return;
             }
 
-            for (Citizen c : citizenMap.values()) {
-                if (!c.getId().equals(loggedInCitizen.getId())) {
-                    if (c.getEmail().equalsIgnoreCase(email)) {
-                        showError.accept("Email is already in use.");
-                        return;
-                    }
-                    if (c.getNumber().equals(phone)) {
-                        showError.accept("Phone number is already in use.");
-                        return;
-                    }
-                }
+            Citizen emailOwner = database.findCitizenByEmail(email);
+            if (emailOwner != null && !emailOwner.getId().equals(loggedInCitizen.getId())) {
+                showError.accept("Email is already in use.");
+                return;
+            }
+            Citizen phoneOwner = database.findCitizenByNumber(phone);
+            if (phoneOwner != null && !phoneOwner.getId().equals(loggedInCitizen.getId())) {
+                showError.accept("Phone number is already in use.");
+                return;
             }
 
             CustomDialog dialog = new CustomDialog();
@@ -371,14 +503,15 @@ public class MainController {
                 return;
             }
 
-            loggedInCitizen.setEmail(email);
-            loggedInCitizen.setNumber(phone);
-            database.updateCitizen(loggedInCitizen.getId(), loggedInCitizen);
-
+            Citizen updated = new Citizen(loggedInCitizen.getId(), loggedInCitizen.getName(), phone, email,
+                loggedInCitizen.getPassword());
+            loggedInCitizen = updated;
             emailLabel.setText("Email: " + email);
             phoneLabel.setText("Phone: " + phone);
 
-            showSuccess.accept("Contact information updated.");
+            whenSaved(database.updateCitizen(updated.getId(), updated),
+                () -> showSuccess.accept("Contact information updated."),
+                message -> showError.accept("Contact information could not be saved: " + message));
         });
 
         HBox btnBox = new HBox(10, updateBtn);
@@ -439,14 +572,16 @@ public class MainController {
                 return;
             }
 
-            loggedInCitizen.setPassword(n);
-            database.updateCitizen(loggedInCitizen.getId(), loggedInCitizen);
-
+            Citizen updated = new Citizen(loggedInCitizen.getId(), loggedInCitizen.getName(),
+                loggedInCitizen.getNumber(), loggedInCitizen.getEmail(), n);
+            loggedInCitizen = updated;
             currentPwdField.clear();
             newPwdField.clear();
             confirmPwdField.clear();
 
-            showSuccess.accept("Password updated successfully.");
+            whenSaved(database.updateCitizen(updated.getId(), updated),
+                () -> showSuccess.accept("Password updated successfully."),
+                message -> showError.accept("Password could not be saved: " + message));
         });
 
         HBox pwdBtnBox = new HBox(10, changePwdBtn);
@@ -524,6 +659,7 @@ public class MainController {
         createSection.getChildren().addAll(createTitle, grid, btnBox);
 
         citizenRequestsStatusArea = createTextArea();
+        citizenRequestsStatusArea.setId("citizen-requests");
         VBox.setVgrow(citizenRequestsStatusArea, Priority.ALWAYS);
 
         Button viewBtn = createButton("👁️ View My Requests", PRIMARY_BLUE);
@@ -599,6 +735,7 @@ public class MainController {
         uploadSection.getChildren().addAll(uploadTitle, grid, btnBox);
 
         citizenDocumentsStatusArea = createTextArea();
+        citizenDocumentsStatusArea.setId("citizen-documents");
         VBox.setVgrow(citizenDocumentsStatusArea, Priority.ALWAYS);
 
         Button viewBtn = createButton("👁️ View My Documents", PRIMARY_BLUE);
@@ -652,19 +789,263 @@ public class MainController {
         TabPane tabPane = new TabPane();
         tabPane.setTabClosingPolicy(TabPane.TabClosingPolicy.UNAVAILABLE);
 
+        Tab dashboardTab = createTab("📊 Dashboard", createAdminDashboardPane());
+        Tab citizensTab = createTab("👥 Citizens", createAdminCitizensPane());
+        Tab requestsTab = createTab("⚙️ Service Requests", createAdminRequestsPane());
+        Tab documentsTab = createTab("📄 Documents", createAdminDocumentsPane());
+        Tab diagnosticsTab = createTab("🩺 Diagnostics", createAdminDiagnosticsPane());
         tabPane.getTabs().addAll(
-            createTab("👥 Citizens", createAdminCitizensPane()),
-            createTab("⚙️ Service Requests", createAdminRequestsPane()),
-            createTab("📄 Documents", createAdminDocumentsPane()),
-            createTab("📁 Archives", createAdminArchivePane())
+            dashboardTab,
+            citizensTab,
+            requestsTab,
+            documentsTab,
+            createTab("📁 Archives", createAdminArchivePane()),
+            diagnosticsTab
         );
 
         styleTabPane(tabPane);
 
+        // The dashboard only refreshes while it is on screen
+        dashboardTab.selectedProperty().addListener((obs, wasSelected, selected) -> showDashboard(selected));
+        showDashboard(dashboardTab.isSelected());
+        diagnosticsTab.selectedProperty().addListener((obs, wasSelected, selected) -> showDiagnostics(selected));
+
+        loadWhenFirstShown(requestsTab, "service requests", progress -> {
+            progress.message("Loading service requests...");
+            Table<ServiceRequest> requests = newRequestTable();
+            for (ServiceRequest sr : database.getAllRequests()) {
+                requests.put(sr);
+            }
+            return requests;
+        }, requests -> serviceRequests = requests);
+        loadWhenFirstShown(documentsTab, "documents", progress -> {
+            progress.message("Loading documents...");
+            Table<Document> docs = newDocumentTable();
+            for (Document doc : database.getAllDocuments()) {
+                docs.put(doc);
+            }
+            return docs;
+        }, docs -> documents = docs);
+
         wrapper.getChildren().add(tabPane);
         return tabPane;
     }
 
+    private Node createAdminDashboardPane() {
+        VBox content = new VBox(15);
+        content.setPadding(new Insets(20));
+        content.setBackground(new Background(new BackgroundFill(Color.web(DARK_BG), CornerRadii.EMPTY, Insets.EMPTY)));
+
+        VBox overviewSection = createDashboardSection("📋 Overview",
+            createDashboardTile("total:citizens", "Citizens"),
+            createDashboardTile("total:requests", "Service Requests"),
+            createDashboardTile("total:documents", "Documents"));
+
+        List<Node> requestTiles = new ArrayList<>();
+        for (ServiceRequest.Status status : ServiceRequest.Status.values()) {
+            requestTiles.add(createDashboardTile("request:" + status.name(),
+                ReportRenderer.statusEmoji(status.name()) + " " + status.name()));
+        }
+        VBox requestSection = createDashboardSection("⚙️ Service Requests by Status", requestTiles.toArray(new Node[0]));
+
+        List<Node> documentTiles = new ArrayList<>();
+        for (Document.Status status : Document.Status.values()) {
+            documentTiles.add(createDashboardTile("document:" + status.name(), status.getDisplay()));
+        }
+        VBox documentSection = createDashboardSection("📄 Documents by Status", documentTiles.toArray(new Node[0]));
+
+        dashboardArea = createTextArea();
+        dashboardArea.setPrefRowCount(18);
+
+        content.getChildren().addAll(
+            createTitle("📊 Dashboard"),
+            overviewSection,
+            requestSection,
+            documentSection,
+            dashboardArea
+        );
+
+        dashboardRefresh = new Timeline(new KeyFrame(DASHBOARD_REFRESH, e -> refreshDashboard()));
+        dashboardRefresh.setCycleCount(Animation.INDEFINITE);
+
+        ScrollPane scroll = new ScrollPane(content);
+        scroll.setFitToWidth(true);
+        scroll.setStyle(
+            "-fx-background: " + DARK_BG + ";" +
+            "-fx-background-color: " + DARK_BG + ";" +
+            "-fx-control-inner-background: " + DARK_BG + ";"
+        );
+        return scroll;
+    }
+
+    private VBox createDashboardSection(String title, Node... tiles) {
+        HBox tileBox = new HBox(12, tiles);
+        tileBox.setAlignment(Pos.CENTER_LEFT);
+
+        VBox section = new VBox(12, createSectionTitle(title), tileBox);
+        section.setPadding(new Insets(15));
+        section.setStyle(createCardStyle());
+        return section;
+    }
+
+    private VBox createDashboardTile(String key, String caption) {
+        Label value = new Label("0");
+        value.setFont(Font.font("Segoe UI", FontWeight.BOLD, 26));
+        value.setTextFill(Color.web(ACCENT_CYAN));
+        dashboardTiles.put(key, value);
+
+        Label name = new Label(caption);
+        name.setFont(Font.font("Segoe UI", 12));
+        name.setTextFill(Color.web(TEXT_GRAY));
+
+        VBox tile = new VBox(4, value, name);
+        tile.setPadding(new Insets(10, 16, 10, 16));
+        tile.setMinWidth(140);
+        tile.setStyle(
+            "-fx-background-color: " + INPUT_BG + ";" +
+            "-fx-border-color: " + BORDER_COLOR + ";" +
+            "-fx-border-radius: 6;" +
+            "-fx-background-radius: 6;"
+        );
+        return tile;
+    }
+
+    private void showDashboard(boolean shown) {
+        if (dashboardRefresh == null) return;
+        if (shown) {
+            refreshDashboard();
+            dashboardRefresh.play();
+        } else {
+            dashboardRefresh.stop();
+        }
+    }
+
+    /**
+     * Read the database's running counters. They are updated with every
+     * change, so a refresh costs the same however many records there are.
+     */
+    private void refreshDashboard() {
+        long started = DASHBOARD_TIMER.start();
+        ViewRenderEvent event = new ViewRenderEvent();
+        event.view = "admin-dashboard";
+        event.begin();
+        Map<String, Integer> requestsByStatus = database.getRequestCounts(LocalDatabase.COUNT_BY_STATUS);
+        Map<String, Integer> documentsByStatus = database.getDocumentCounts(LocalDatabase.COUNT_BY_STATUS);
+        Map<String, Integer> requestsByType = database.getRequestCounts(LocalDatabase.COUNT_BY_TYPE);
+        Map<String, Integer> requestsByDay = database.getRequestCounts(LocalDatabase.COUNT_BY_DAY);
+        Map<String, Integer> documentsByDay = database.getDocumentCounts(LocalDatabase.COUNT_BY_DAY);
+
+        int totalRequests = 0;
+        for (ServiceRequest.Status status : ServiceRequest.Status.values()) {
+            int count = requestsByStatus.getOrDefault(status.name(), 0);
+            setDashboardTile("request:" + status.name(), count);
+            totalRequests += count;
+        }
+        int totalDocuments = 0;
+        for (Document.Status status : Document.Status.values()) {
+            int count = documentsByStatus.getOrDefault(status.name(), 0);
+            setDashboardTile("document:" + status.name(), count);
+            totalDocuments += count;
+        }
+        setDashboardTile("total:requests", totalRequests);
+        setDashboardTile("total:documents", totalDocuments);
+        setDashboardTile("total:citizens", database.getCitizenCount());
+
+        StringBuilder sb = ReportRenderer.buffer();
+        sb.append("SERVICE REQUESTS BY TYPE\n").append(ReportRenderer.RULE);
+        if (requestsByType.isEmpty()) {
+            sb.append("No service requests yet.\n");
+        }
+        for (Map.Entry<String, Integer> entry : requestsByType.entrySet()) {
+            ReportRenderer.appendLeft(sb, entry.getKey(), 40);
+            ReportRenderer.appendRight(sb, entry.getValue(), 10).append('\n');
+        }
+
+        sb.append("\nACTIVITY BY DAY (last ").append(DASHBOARD_DAYS).append(" days)\n").append(ReportRenderer.RULE);
+        ReportRenderer.appendLeft(sb, "Day", 20).append("  Requests   Documents\n");
+        LocalDate today = LocalDate.now();
+        for (int i = 0; i < DASHBOARD_DAYS; i++) {
+            String day = today.minusDays(i).toString();
+            ReportRenderer.appendLeft(sb, day, 20);
+            ReportRenderer.appendRight(sb, requestsByDay.getOrDefault(day, 0), 10);
+            ReportRenderer.appendRight(sb, documentsByDay.getOrDefault(day, 0), 12).append('\n');
+        }
+
+        String text = sb.toString();
+        if (!text.equals(dashboardArea.getText())) {
+            dashboardArea.setText(text);
+        }
+        DASHBOARD_TIMER.stop(started);
+        event.records = totalRequests + totalDocuments;
+        event.commit();
+    }
+
+    private Node createAdminDiagnosticsPane() {
+        VBox content = new VBox(15);
+        content.setPadding(new Insets(20));
+        content.setBackground(new Background(new BackgroundFill(Color.web(DARK_BG), CornerRadii.EMPTY, Insets.EMPTY)));
+
+        Button refreshBtn = createButton("🔄 Refresh", ACCENT_CYAN);
+        refreshBtn.setOnAction(e -> refreshDiagnostics());
+
+        Button exportBtn = createButton("💾 Export Snapshot", PRIMARY_BLUE);
+        exportBtn.setOnAction(e -> exportMetricsSnapshot());
+
+        HBox btnBox = new HBox(10, refreshBtn, exportBtn);
+        btnBox.setAlignment(Pos.CENTER_LEFT);
+
+        diagnosticsStatusArea = createTextArea();
+        diagnosticsStatusArea.setPrefRowCount(2);
+
+        diagnosticsArea = createTextArea();
+        diagnosticsArea.setWrapText(false);
+        diagnosticsArea.setPrefRowCount(30);
+        VBox.setVgrow(diagnosticsArea, Priority.ALWAYS);
+
+        content.getChildren().addAll(
+            createTitle("🩺 Diagnostics"),
+            btnBox,
+            diagnosticsStatusArea,
+            diagnosticsArea
+        );
+
+        diagnosticsRefresh = new Timeline(new KeyFrame(DASHBOARD_REFRESH, e -> refreshDiagnostics()));
+        diagnosticsRefresh.setCycleCount(Animation.INDEFINITE);
+        return content;
+    }
+
+    private void showDiagnostics(boolean shown) {
+        if (diagnosticsRefresh == null) return;
+        if (shown) {
+            refreshDiagnostics();
+            diagnosticsRefresh.play();
+        } else {
+            diagnosticsRefresh.stop();
+        }
+    }
+
+    private void refreshDiagnostics() {
+        StringBuilder sb = ReportRenderer.buffer();
+        Metrics.snapshot().appendTo(sb);
+        String text = sb.toString();
+        if (!text.equals(diagnosticsArea.getText())) {
+            diagnosticsArea.setText(text);
+        }
+    }
+
+    private void exportMetricsSnapshot() {
+        BackgroundTasks.submit(progress -> Metrics.exportSnapshot(METRICS_DIR),
+            file -> showSuccess("✅ Metrics snapshot saved to " + file.toAbsolutePath(), diagnosticsStatusArea),
+            error -> showError("❌ Could not export metrics: " + error.getMessage(), diagnosticsStatusArea));
+    }
+
+    private void setDashboardTile(String key, int count) {
+        Label tile = dashboardTiles.get(key);
+        if (tile != null) {
+            tile.setText(String.valueOf(count));
+        }
+    }
+
     private Node createAdminCitizensPane() {
         VBox content = new VBox(15);
         content.setPadding(new Insets(20));
@@ -674,9 +1055,10 @@ public class MainController {
         searchSection.setPadding(new Insets(15));
         searchSection.setStyle(createCardStyle());
         Label searchTitle = createSectionTitle("🔍 Search Citizens");
-        TextField searchField = createTextField("Search by ID or name...");
+        TextField searchField = createTextField("Search by name, email, phone or ID...");
         Button searchBtn = createButton("🔎 Search", ACCENT_CYAN);
         searchBtn.setOnAction(e -> adminSearchCitizens(searchField.getText().trim()));
+        searchAsYouType(searchField, adminCitizensStatusArea, this::adminSearchCitizens);
         Button showAllBtn = createButton("👁️ Show All Citizens", PRIMARY_BLUE);
         showAllBtn.setOnAction(e -> adminShowAllCitizens());
         HBox btnBox = new HBox(10, searchField, searchBtn, showAllBtn);
@@ -699,7 +1081,16 @@ public class MainController {
         deleteSection.getChildren().addAll(deleteTitle, deleteBox);
 
         adminCitizensStatusArea = createTextArea();
-        VBox.setVgrow(adminCitizensStatusArea, Priority.ALWAYS);
+        adminCitizensStatusArea.setId("admin-citizens");
+        adminCitizensStatusArea.setPrefRowCount(6);
+
+        citizensTable = new RecordTable<Citizen>("Press 'Show All Citizens' or search to list citizens.")
+            .addColumn("ID", Citizen::getId)
+            .addColumn("Name", Citizen::getName)
+            .addColumn("Email", Citizen::getEmail)
+            .addColumn("Phone", Citizen::getNumber);
+        citizensTable.setOnSelect(c -> deleteCitizenIdField.setText(c.getId()));
+        citizensTable.setOnPage(this::adminShowCitizensPage);
 
         content.getChildren().addAll(
             createTitle("👥 Citizen Management"),
@@ -709,7 +1100,8 @@ public class MainController {
             new Separator(),
             deleteSection,
             new Separator(),
-            adminCitizensStatusArea
+            adminCitizensStatusArea,
+            citizensTable.getView()
         );
 
         ScrollPane scroll = new ScrollPane(content);
@@ -731,7 +1123,10 @@ public class MainController {
         );
 
         adminCitizensStatusArea.textProperty().addListener((obs, oldText, newText) -> {
-            Platform.runLater(() -> scroll.setVvalue(1.0));
+            // Not while typing a live search; the field would scroll out of view
+            if (!searchField.isFocused()) {
+                Platform.runLater(() -> scroll.setVvalue(1.0));
+            }
         });
 
         return scroll;
@@ -817,7 +1212,7 @@ public class MainController {
             return;
         }
 
-        Citizen targetCitizen = citizenMap.get(citizenIdToDelete);
+        Citizen targetCitizen = database.getCitizenById(citizenIdToDelete);
         if (targetCitizen == null) {
             showError("❌ Citizen not found with ID: " + citizenIdToDelete, adminCitizensStatusArea);
             return;
@@ -892,19 +1287,18 @@ public class MainController {
     }
 
     private void deleteCitizen(String citizenId, String reason) {
-        Citizen deletedCitizen = citizenMap.get(citizenId);
+        Citizen deletedCitizen = database.getCitizenById(citizenId);
         if (deletedCitizen == null) {
             showError("❌ Citizen not found.", adminCitizensStatusArea);
             return;
         }
 
         try {
-            LocalDatabase db = new LocalDatabase();
-            db.archiveCitizen(citizenId, reason);
+            CompletableFuture<Void> archived = database.archiveCitizen(citizenId, reason);
 
-            citizenMap.remove(citizenId);
+            adminShowAllCitizens();
 
-            showSuccess(
+            whenSaved(archived, () -> showSuccess(
                 """
                 \u2705 Citizen archived and deleted successfully!
                 
@@ -915,14 +1309,10 @@ public class MainController {
                 "Reason: " + reason + "\n\n" +
                 "You can view this citizen in the Archives tab.",
                 adminCitizensStatusArea
-            );
-
-            adminShowAllCitizens();
-
-            System.out.println("✓ Citizen archived: " + citizenId + " | Reason: " + reason);
+            ), message -> showError("❌ Archiving citizen could not be saved: " + message, adminCitizensStatusArea));
         } catch (Exception e) {
             showError("❌ Error deleting citizen: " + e.getMessage(), adminCitizensStatusArea);
-            System.err.println("Error deleting citizen: " + e.getMessage());
+            LOG.error("Error deleting citizen", "id", citizenId, e);
         }
     }
 
@@ -956,7 +1346,8 @@ public class MainController {
         filterSection.getChildren().addAll(filterTitle, btnBox);
 
         archiveStatusArea = createTextArea();
-        VBox. setVgrow(archiveStatusArea, Priority.ALWAYS);
+        archiveStatusArea.setId("admin-archives");
+        archiveStatusArea.setPrefRowCount(6);
 
         VBox restoreSection = new VBox(12);
         restoreSection.setPadding(new Insets(15));
@@ -975,13 +1366,28 @@ public class MainController {
         
         restoreSection.getChildren().addAll(restoreTitle, restoreBox);
 
+        archivesTable = new RecordTable<Archive>("No archived records found.")
+            .addColumn("Archive ID", Archive::getArchiveId)
+            .addColumn("Type", a -> a.getType().name())
+            .addColumn("Entity ID", Archive::getEntityId)
+            .addColumn("Archived By", Archive::getArchivedBy)
+            .addColumn("Date", a -> a.getArchivedAt().format(ReportRenderer.DATE_TIME))
+            .addColumn("Reason", Archive::getReason);
+        archivesTable.setOnPage(this::viewArchivesPage);
+        archivesTable.setOnSelect(a -> {
+            if (a.getType() == Archive.ArchiveType.DELETED_CITIZEN) {
+                restoreCitizenIdField.setText(a.getEntityId());
+            }
+        });
+
         content.getChildren().addAll(
             createTitle("📁 Archive Management"),
             filterSection,
             new Separator(),
             restoreSection,
             new Separator(),
-            archiveStatusArea
+            archiveStatusArea,
+            archivesTable.getView()
         );
 
         ScrollPane scroll = new ScrollPane(content);
@@ -1001,85 +1407,22 @@ public class MainController {
     }
 
     private void viewAllArchives() {
-        LocalDatabase db = new LocalDatabase();
-        List<JSONObject> archives = db.getAllArchives();
-
-        StringBuilder sb = new StringBuilder();
-        sb.append("╔════════════════════════════════════════════════════════════╗\n");
-        sb. append("║                   ALL ARCHIVES                             ║\n");
-        sb.append("╚════════════════════════════════════════════════════════════╝\n\n");
-
-        if (archives.isEmpty()) {
-            sb.append("📁 No archived records found.\n");
-        } else {
-            for (JSONObject arch : archives) {
-                try {
-                    sb.append(String.format("""
-                                            Archive ID: %s
-                                            Type: %s
-                                            Entity ID: %s
-                                            Archived By: %s
-                                            Date: %s
-                                            Reason: %s
-                                            \u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500
-                                            
-                                            """,
-                        arch.getString("archiveId"),
-                        arch. getString("type"),
-                        arch.getString("entityId"),
-                        arch. getString("archivedBy"),
-                        arch.getString("archivedAt"),
-                        arch.getString("reason")
-                    ));
-                } catch (JSONException e) {
-                    System.err.println("Error displaying archive: " + e.getMessage());
-                }
-            }
-        }
+        viewArchivesPage(PageRequest.first(PageRequest.BY_TIME, ADMIN_PAGE_SIZE));
+    }
 
-        if (archiveStatusArea != null) {
-            archiveStatusArea. setText(sb.toString());
-        }
+    private void viewArchivesPage(PageRequest request) {
+        showPage(archiveStatusArea, archivesTable, progress -> database.getArchivesPage(request),
+            page -> page.getTotal() == 0
+                ? "📁 No archived records found."
+                : "📁 All archives: " + page.getTotal() + " records. Select a deleted citizen to restore it.");
     }
 
     private void viewArchivedByType(String type) {
-        LocalDatabase db = new LocalDatabase();
-        List<JSONObject> archives = db. getArchivesByType(type);
-
-        StringBuilder sb = new StringBuilder();
-        sb.append("╔════════════════════════════════════════════════════════════╗\n");
-        sb.append("║  ").append(String.format("%-56s", type. replace("_", " "))).append("  ║\n");
-        sb.append("╚════════════════════════════════════════════════════════════╝\n\n");
-
-        if (archives.isEmpty()) {
-            sb.append("📁 No archived records of this type.\n");
-        } else {
-            for (JSONObject arch : archives) {
-                try {
-                    sb.append(String.format("""
-                                            Archive ID: %s
-                                            Entity ID: %s
-                                            Archived By: %s
-                                            Date: %s
-                                            Reason: %s
-                                            \u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500
-                                            
-                                            """,
-                        arch.getString("archiveId"),
-                        arch.getString("entityId"),
-                        arch.getString("archivedBy"),
-                        arch. getString("archivedAt"),
-                        arch.getString("reason")
-                    ));
-                } catch (JSONException e) {
-                    System.err.println("Error displaying archive: " + e.getMessage());
-                }
-            }
-        }
-
-        if (archiveStatusArea != null) {
-            archiveStatusArea.setText(sb.toString());
-        }
+        String label = type.replace("_", " ");
+        showRows(archiveStatusArea, archivesTable, progress -> database.getArchivesByType(type),
+            rows -> rows.isEmpty()
+                ? "📁 No archived records of this type."
+                : "📁 " + label + ": " + rows.size() + " records");
     }
 
     private void restoreDeletedCitizen(String citizenIdToRestore) {
@@ -1088,20 +1431,7 @@ public class MainController {
             return;
         }
 
-        LocalDatabase db = new LocalDatabase();
-        List<JSONObject> archives = db. getArchivesByType("DELETED_CITIZEN");
-
-        JSONObject deletedCitizenArchive = null;
-        for (JSONObject arch : archives) {
-            try {
-                if (arch.getString("entityId").equals(citizenIdToRestore)) {
-                    deletedCitizenArchive = arch;
-                    break;
-                }
-            } catch (JSONException e) {
-                System.err.println("Error searching archive: " + e.getMessage());
-            }
-        }
+        Archive deletedCitizenArchive = database.getArchiveByEntityId(citizenIdToRestore, "DELETED_CITIZEN");
 
         if (deletedCitizenArchive == null) {
             showError("❌ No deleted citizen found with ID: " + citizenIdToRestore, archiveStatusArea);
@@ -1116,7 +1446,7 @@ public class MainController {
         content.setPadding(new Insets(15));
 
         try {
-            String details = deletedCitizenArchive. getString("details");
+            String details = deletedCitizenArchive.getDetails();
             JSONObject citizenData = new JSONObject(details);
             
             Label info = new Label("""
@@ -1143,22 +1473,18 @@ public class MainController {
 
         if (result.isPresent() && result.get() == ButtonType.OK) {
             try {
-                String details = deletedCitizenArchive.getString("details");
-                JSONObject citizenData = new JSONObject(details);
-
-                Citizen restoredCitizen = new Citizen(
-                    citizenData. getString("id"),
-                    citizenData.getString("name"),
-                    citizenData.getString("number"),
-                    citizenData.getString("email"),
-                    citizenData.getString("password")
-                );
+                String details = deletedCitizenArchive.getDetails();
+                Citizen restoredCitizen = ModelCodecs.CITIZEN.fromJson(new JSONObject(details));
+
+                CompletableFuture<Void> restored = database.addCitizen(restoredCitizen);
 
-                db.addCitizen(restoredCitizen);
+                LOG.info("Citizen restored", "id", restoredCitizen.getId());
                 
-                citizenMap.put(restoredCitizen.getId(), restoredCitizen);
+                viewAllArchives();
+                
+                adminShowAllCitizens();
 
-                showSuccess(
+                whenSaved(restored, () -> showSuccess(
                     """
                     \u2705 Citizen account restored successfully!
                     
@@ -1166,17 +1492,11 @@ public class MainController {
                     "Name: " + restoredCitizen.getName() + "\n" +
                     "Email: " + restoredCitizen. getEmail(),
                     archiveStatusArea
-                );
-
-                System.out.println("✓ Citizen restored: " + restoredCitizen.getId());
-                
-                viewAllArchives();
-                
-                adminShowAllCitizens();
+                ), message -> showError("❌ Restored citizen could not be saved: " + message, archiveStatusArea));
 
             } catch (JSONException e) {
                 showError("❌ Error restoring citizen: " + e.getMessage(), archiveStatusArea);
-                System.err.println("Error restoring citizen: " + e.getMessage());
+                LOG.error("Error restoring citizen", e);
             }
         }
     }
@@ -1229,12 +1549,12 @@ public class MainController {
         );
 
         if (idField.getText().isEmpty()) {
-            idField.setText(CitizenIdGenerator.generateCitizenId(citizenMap));
+            idField.setText(database.nextCitizenId());
         }
 
         Button regenerateBtn = createButton("🔄 New ID", PRIMARY_BLUE);
         regenerateBtn.setPrefWidth(120);
-        regenerateBtn.setOnAction(e -> idField.setText(CitizenIdGenerator.generateCitizenId(citizenMap)));
+        regenerateBtn.setOnAction(e -> idField.setText(database.nextCitizenId()));
 
         HBox idBox = new HBox(10, idField, regenerateBtn);
         HBox.setHgrow(idField, Priority.ALWAYS);
@@ -1275,26 +1595,24 @@ public class MainController {
                 return;
             }
 
-            for (Citizen c : citizenMap.values()) {
-                if (c.getEmail().equalsIgnoreCase(email)) {
-                    showError.accept("Email already in use.");
-                    return;
-                }
-                if (c.getNumber().equals(number)) {
-                    showError.accept("Phone number already in use.");
-                    return;
-                }
+            if (database.findCitizenByEmail(email) != null) {
+                showError.accept("Email already in use.");
+                return;
+            }
+            if (database.findCitizenByNumber(number) != null) {
+                showError.accept("Phone number already in use.");
+                return;
             }
 
             Citizen newCitizen = new Citizen(id, name, number, email, password);
-            LocalDatabase db = new LocalDatabase();
-            db.addCitizen(newCitizen);
-            citizenMap.put(id, newCitizen);
+            CompletableFuture<Void> added = database.addCitizen(newCitizen);
 
-            showSuccess.accept("Citizen added successfully: " + name);
-            adminCitizensStatusArea.appendText("✅ Added citizen: " + newCitizen.getName() + " (ID: " + id + ")\n");
+            whenSaved(added, () -> {
+                showSuccess.accept("Citizen added successfully: " + name);
+                adminCitizensStatusArea.appendText("✅ Added citizen: " + name + " (ID: " + id + ")\n");
+            }, message -> showError.accept("Citizen " + name + " could not be saved: " + message));
 
-            idField.setText(CitizenIdGenerator.generateCitizenId(citizenMap));
+            idField.setText(database.nextCitizenId());
             nameField.clear();
             emailField.clear();
             numberField.clear();
@@ -1342,6 +1660,7 @@ public class MainController {
 
         Button searchBtn = createButton("🔎 Search", ACCENT_CYAN);
         searchBtn.setOnAction(e -> adminSearchRequests(citizenIdField.getText().trim()));
+        searchAsYouType(citizenIdField, adminRequestsStatusArea, this::adminSearchRequests);
 
         Button showAllBtn = createButton("👁️ Show All", PRIMARY_BLUE);
         showAllBtn.setOnAction(e -> adminShowAllRequests());
@@ -1401,7 +1720,21 @@ public class MainController {
         updateSection.getChildren().addAll(updateTitle, grid, btnBox);
 
         adminRequestsStatusArea = createTextArea();
-        VBox.setVgrow(adminRequestsStatusArea, Priority.ALWAYS);
+        adminRequestsStatusArea.setId("admin-requests");
+        adminRequestsStatusArea.setPrefRowCount(6);
+
+        requestsTable = new RecordTable<ServiceRequest>("Press 'Show All' or search to list requests.")
+            .addColumn("Request ID", ServiceRequest::getId)
+            .addColumn("Citizen ID", ServiceRequest::getCitizenId)
+            .addColumn("Type", ServiceRequest::getServiceType)
+            .addColumn("Description", ServiceRequest::getDescription)
+            .addColumn("Status", sr -> ReportRenderer.statusEmoji(sr.getStatus().name()) + " " + sr.getStatus().name())
+            .addColumn("Note", ServiceRequest::getAdminNote);
+        requestsTable.setOnPage(this::adminShowRequestsPage);
+        requestsTable.setOnSelect(sr -> {
+            reqIdField.setText(sr.getId());
+            statusCombo.setValue(sr.getStatus());
+        });
 
         content.getChildren().addAll(
             createTitle("⚙️ Service Request Management"),
@@ -1409,7 +1742,8 @@ public class MainController {
             new Separator(),
             updateSection,
             new Separator(),
-            adminRequestsStatusArea
+            adminRequestsStatusArea,
+            requestsTable.getView()
         );
 
         ScrollPane scroll = new ScrollPane(content);
@@ -1443,9 +1777,11 @@ public class MainController {
 
         Button searchCitizenBtn = createButton("🔎 By Citizen", ACCENT_CYAN);
         searchCitizenBtn.setOnAction(e -> adminSearchDocumentsByCitizen(citizenIdField.getText().trim()));
+        searchAsYouType(citizenIdField, adminDocumentsStatusArea, this::adminSearchDocumentsByCitizen);
 
         Button searchDocBtn = createButton("🔎 By Doc ID", ACCENT_CYAN);
         searchDocBtn.setOnAction(e -> adminSearchDocumentsByDocId(docIdField.getText().trim()));
+        searchAsYouType(docIdField, adminDocumentsStatusArea, this::adminSearchDocumentsByDocId);
 
         Button showAllBtn = createButton("👁️ Show All", PRIMARY_BLUE);
         showAllBtn.setOnAction(e -> adminShowAllDocuments());
@@ -1508,7 +1844,19 @@ public class MainController {
         updateSection.getChildren().addAll(updateTitle, grid, btnBox);
 
         adminDocumentsStatusArea = createTextArea();
-        VBox.setVgrow(adminDocumentsStatusArea, Priority.ALWAYS);
+        adminDocumentsStatusArea.setId("admin-documents");
+        adminDocumentsStatusArea.setPrefRowCount(6);
+
+        documentsTable = new RecordTable<Document>("Press 'Show All' or search to list documents.")
+            .addColumn("Document ID", Document::getId)
+            .addColumn("Request ID", Document::getAttachedRequestId)
+            .addColumn("Citizen ID", Document::getCitizenId)
+            .addColumn("File", Document::getFilePath)
+            .addColumn("Status", doc -> ReportRenderer.statusEmoji(doc.getStatus().name()) + " " + doc.getStatus().name())
+            .addColumn("Uploaded", doc -> doc.getUploadTime().format(ReportRenderer.DATE_TIME))
+            .addColumn("Review", Document::getReviewComment);
+        documentsTable.setOnSelect(doc -> docIdUpdateField.setText(doc.getId()));
+        documentsTable.setOnPage(this::adminShowDocumentsPage);
 
         content.getChildren().addAll(
             createTitle("📄 Document Management"),
@@ -1516,7 +1864,8 @@ public class MainController {
             new Separator(),
             updateSection,
             new Separator(),
-            adminDocumentsStatusArea
+            adminDocumentsStatusArea,
+            documentsTable.getView()
         );
 
         ScrollPane scroll = new ScrollPane(content);
@@ -1556,59 +1905,51 @@ public class MainController {
         }
 
 
-        String reqId = generateRequestId(loggedInCitizen.getId());
+        String reqId = database.nextRequestId();
         ServiceRequest sr = new ServiceRequest(reqId, loggedInCitizen.getId(), type, description);
         sr.setStatus(ServiceRequest.Status.REQUESTED);
 
-        serviceRequests.add(sr);
-        database.addRequest(sr);
+        serviceRequests.put(sr);
 
-        showSuccess(
+        whenSaved(database.addRequest(sr), () -> showSuccess(
             """
             \u2705 Request submitted successfully!
             Request ID: """ + reqId,
             citizenRequestsStatusArea
-        );
+        ), message -> showError("❌ Request could not be saved: " + message, citizenRequestsStatusArea));
     }
 
     private void viewCitizenRequests() {
-        List<ServiceRequest> myRequests = new ArrayList<>();
-        for (ServiceRequest sr : serviceRequests) {
-            if (sr.getCitizenId().equals(loggedInCitizen.getId())) {
-                myRequests.add(sr);
-            }
+        List<ServiceRequest> myRequests = serviceRequests.lookup("citizenId", loggedInCitizen.getId());
+        Map<String, Integer> documentCounts = new HashMap<>();
+        for (ServiceRequest sr : myRequests) {
+            documentCounts.put(sr.getId(), documents.lookup("requestId", sr.getId()).size());
         }
 
-        if (myRequests.isEmpty()) {
-            citizenRequestsStatusArea.setText("📄 You have not submitted any service requests yet.");
-            return;
-        }
+        showReport(citizenRequestsStatusArea, progress -> {
+            if (myRequests.isEmpty()) {
+                return "📄 You have not submitted any service requests yet.";
+            }
 
-        StringBuilder sb = new StringBuilder();
-        sb.append("╔════════════════════════════════════════════════════════════╗\n");
-        sb.append("║               MY SERVICE REQUESTS                           ║\n");
-        sb.append("╚════════════════════════════════════════════════════════════╝\n\n");
+            StringBuilder sb = ReportRenderer.buffer();
+            sb.append("╔════════════════════════════════════════════════════════════╗\n");
+            sb.append("║               MY SERVICE REQUESTS                           ║\n");
+            sb.append("╚════════════════════════════════════════════════════════════╝\n\n");
 
-        for (ServiceRequest sr : myRequests) {
-            sb.append(String.format(
-                """
-                ID: %s
-                Type: %s
-                Description: %s
-                Status: %s %s
-                """ +
-                (sr.getAdminNote().isEmpty() ? "" : "Admin Note: %s\n") +
-                "────────────────────────────────────────────────────────────\n\n",
-                sr.getId(),
-                sr.getServiceType(),
-                sr.getDescription(),
-                getStatusEmoji(sr.getStatus().name()),
-                sr.getStatus().name(),
-                sr.getAdminNote()
-            ));
-        }
+            int done = 0;
+            for (ServiceRequest sr : myRequests) {
+                if (!keepBuilding(progress, done++, myRequests.size())) return null;
+                REQUEST_REPORT_ROW.appendTo(sb, sr);
+
+                int attached = documentCounts.get(sr.getId());
+                if (attached > 0) {
+                    sb.append("Documents: ").append(attached).append(" attached\n");
+                }
+                sb.append(ReportRenderer.RULE).append('\n');
+            }
 
-        citizenRequestsStatusArea.setText(sb.toString());
+            return sb.toString();
+        });
     }
 
     private void uploadDocument(String requestId, String filePath) {
@@ -1617,35 +1958,19 @@ public class MainController {
             return;
         }
 
-        ServiceRequest targetRequest = null;
-        for (ServiceRequest sr : serviceRequests) {
-            if (sr.getId().equals(requestId) && sr.getCitizenId().equals(loggedInCitizen.getId())) {
-                targetRequest = sr;
-                break;
-            }
-        }
-
-        if (targetRequest == null) {
+        ServiceRequest targetRequest = serviceRequests.get(requestId);
+        if (targetRequest == null || !targetRequest.getCitizenId().equals(loggedInCitizen.getId())) {
             showError("❌ Request not found or does not belong to you.", citizenDocumentsStatusArea);
             return;
         }
 
-        String docId = generateDocumentId(loggedInCitizen.getId());
+        String docId = database.nextDocumentId();
         Document doc = new Document(docId, requestId, filePath, loggedInCitizen.getId());
         doc.setStatus(Document.Status.PENDING);
 
-        documents.add(doc);
-        
-        try {
-            database.addDocument(doc);
-            System.out.println("Document added - ID: " + docId + ", Citizen: " + loggedInCitizen.getId() + ", Request: " + requestId);
-        } catch (Exception e) {
-            System.err.println("Error saving document: " + e.getMessage());
-            showError("❌ Error saving document to database.", citizenDocumentsStatusArea);
-            return;
-        }
+        documents.put(doc);
 
-        showSuccess(
+        whenSaved(database.addDocument(doc), () -> showSuccess(
             """
             \u2705 Document uploaded successfully!
             
@@ -1654,62 +1979,45 @@ public class MainController {
             "File: " + filePath + "\n" +
             "Status: PENDING REVIEW",
             citizenDocumentsStatusArea
-        );
+        ), message -> showError("❌ Error saving document to database: " + message, citizenDocumentsStatusArea));
         
         viewCitizenDocuments();
     }
 
     private void viewCitizenDocuments() {
-        List<Document> myDocs = new ArrayList<>();
-        for (Document doc : documents) {
-            if (doc. getCitizenId(). equals(loggedInCitizen.getId())) {
-                myDocs. add(doc);
+        List<Document> myDocs = documents.lookup("citizenId", loggedInCitizen.getId());
+        Map<String, ServiceRequest> requestsById = new HashMap<>();
+        for (Document doc : myDocs) {
+            ServiceRequest related = serviceRequests.get(doc.getAttachedRequestId());
+            if (related != null) {
+                requestsById.put(related.getId(), related);
             }
         }
 
-        if (myDocs.isEmpty()) {
-            citizenDocumentsStatusArea.setText("📄 You have not uploaded any documents yet.");
-            return;
-        }
+        showReport(citizenDocumentsStatusArea, progress -> {
+            if (myDocs.isEmpty()) {
+                return "📄 You have not uploaded any documents yet.";
+            }
 
-        StringBuilder sb = new StringBuilder();
-        sb.append("╔════════════════════════════════════════════════════════════╗\n");
-        sb. append("║               MY UPLOADED DOCUMENTS                         ║\n");
-        sb.append("╚════════════════════════════════════════════════════════════╝\n\n");
+            StringBuilder sb = ReportRenderer.buffer();
+            sb.append("╔════════════════════════════════════════════════════════════╗\n");
+            sb.append("║               MY UPLOADED DOCUMENTS                         ║\n");
+            sb.append("╚════════════════════════════════════════════════════════════╝\n\n");
 
-        for (Document doc : myDocs) {
-            ServiceRequest relatedRequest = null;
-            for (ServiceRequest sr : serviceRequests) {
-                if (sr.getId().equals(doc.getAttachedRequestId())) {
-                    relatedRequest = sr;
-                    break;
+            int done = 0;
+            for (Document doc : myDocs) {
+                if (!keepBuilding(progress, done++, myDocs.size())) return null;
+                DOCUMENT_REPORT_ROW.appendTo(sb, doc);
+
+                ServiceRequest relatedRequest = requestsById.get(doc.getAttachedRequestId());
+                if (relatedRequest != null && !relatedRequest.getAdminNote().isEmpty()) {
+                    sb.append("Request Note: ").append(relatedRequest.getAdminNote()).append('\n');
                 }
+                sb.append(ReportRenderer.RULE).append('\n');
             }
 
-            sb.append(String.format(
-                """
-                Document ID: %s
-                Request ID: %s
-                File: %s
-                Status: %s %s
-                Uploaded: %s
-                """ +
-                (doc.getReviewComment(). isEmpty() ? "" : "Officer's Note: %s\n") +
-                (relatedRequest != null && ! relatedRequest.getAdminNote().isEmpty() ? 
-                    "Request Note: %s\n" : "") +
-                "────────────────────────────────────────────────────────────\n\n",
-                doc.getId(),
-                doc.getAttachedRequestId(),
-                doc.getFilePath(),
-                getStatusEmoji(doc.getStatus(). name()),
-                doc.getStatus().name(),
-                doc.getUploadTime(). format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm")),
-                doc.getReviewComment(),
-                (relatedRequest != null ?  relatedRequest.getAdminNote() : "")
-            ));
-        }
-
-        citizenDocumentsStatusArea.setText(sb.toString());
+            return sb.toString();
+        });
     }
 
     private void adminSearchCitizens(String search) {
@@ -1718,80 +2026,24 @@ public class MainController {
             return;
         }
 
-        StringBuilder sb = new StringBuilder();
-        sb.append("╔════════════════════════════════════════════════════════════╗\n");
-        sb.append("║                    SEARCH RESULTS                           ║\n");
-        sb.append("╚════════════════════════════════════════════════════════════╝\n\n");
-
-        boolean found = false;
-        String searchLower = search.toLowerCase();
-
-        for (Citizen c : citizenMap.values()) {
-            if (c.getId().contains(search) || c.getName().toLowerCase().contains(searchLower)) {
-                sb.append(String.format("""
-                                        ID: %s
-                                        Name: %s
-                                        Email: %s
-                                        Phone: %s
-                                        \u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500\u2500
-                                        
-                                        """,
-                    c.getId(),
-                    c.getName(),
-                    c.getEmail(),
-                    c.getNumber()
-                ));
-                found = true;
-            }
-        }
-
-        if (!found) {
-            adminCitizensStatusArea.setText("❌ No citizens found matching: " + search);
-        } else {
-            adminCitizensStatusArea.setText(sb.toString());
-        }
+        showRows(adminCitizensStatusArea, citizensTable, progress -> database.searchCitizens(search, SEARCH_LIMIT),
+            rows -> rows.isEmpty()
+                ? "❌ No citizens found matching: " + search
+                : "🔍 " + (rows.size() == SEARCH_LIMIT ? "Top " : "") + rows.size() + " citizens matching: " + search);
     }
 
     private void adminShowAllCitizens() {
-        if (citizenMap.isEmpty()) {
-            adminCitizensStatusArea.setText("❌ No citizens in the system.");
-            return;
-        }
-
-        StringBuilder sb = new StringBuilder();
-        sb.append("╔════════════════════════════════════════════════════════════╗\n");
-        sb.append("║                    ALL CITIZENS                             ║\n");
-        sb.append("╚════════════════════════════════════════════════════════════╝\n\n");
-
-        int count = 1;
-        for (Citizen c : citizenMap.values()) {
-            sb.append(String.format("""
-                                    %d. ID: %s
-                                       Name: %s
-                                       Email: %s
-                                       Phone: %s
-                                    
-                                    """,
-                count,
-                c.getId(),
-                c.getName(),
-                c.getEmail(),
-                c.getNumber()
-            ));
-            count++;
-        }
-
-        sb.append("────────────────────────────────────────────────────────────\n");
-        sb.append("TO DELETE A CITIZEN:\n");
-        sb.append("1. Copy the Citizen ID\n");
-        sb.append("2. Use the 'Delete Citizen' button below\n");
-        sb.append("3. Enter the ID and confirm with admin password\n");
-
-        adminCitizensStatusArea.setText(sb.toString());
-
-        Platform.runLater(() -> adminCitizensStatusArea.setScrollTop(Double.MAX_VALUE));
+        adminShowCitizensPage(PageRequest.first(PageRequest.BY_ID, ADMIN_PAGE_SIZE));
     }
 
+    private void adminShowCitizensPage(PageRequest request) {
+        showPage(adminCitizensStatusArea, citizensTable, progress -> database.getCitizensPage(request),
+            page -> page.getTotal() == 0
+                ? "❌ No citizens in the system."
+                : "👥 All citizens: " + page.getTotal() + "\n\n" +
+                  "TO DELETE A CITIZEN: select it in the table, then use the 'Delete Citizen' button above\n" +
+                  "and confirm with the admin password.");
+    }
 
     private void adminSearchRequests(String citizenId) {
         if (citizenId.isEmpty()) {
@@ -1799,58 +2051,22 @@ public class MainController {
             return;
         }
 
-        List<ServiceRequest> filtered = new ArrayList<>();
-        for (ServiceRequest sr : serviceRequests) {
-            if (sr.getCitizenId().equals(citizenId)) {
-                filtered.add(sr);
-            }
-        }
-
-        if (filtered.isEmpty()) {
-            adminRequestsStatusArea.setText("❌ No requests found for citizen ID: " + citizenId);
-            return;
-        }
-
-        displayRequestsAdmin(filtered, "Requests for Citizen: " + citizenId);
+        showRows(adminRequestsStatusArea, requestsTable,
+            progress -> database.findRequestsByCitizenId(citizenId, SEARCH_LIMIT),
+            rows -> rows.isEmpty()
+                ? "❌ No requests found for citizen ID: " + citizenId
+                : "⚙️ Requests for Citizen: " + citizenId + ": " + rows.size());
     }
 
     private void adminShowAllRequests() {
-        if (serviceRequests.isEmpty()) {
-            adminRequestsStatusArea.setText("❌ No service requests in the system.");
-            return;
-        }
-
-        displayRequestsAdmin(serviceRequests, "All Service Requests");
+        adminShowRequestsPage(PageRequest.first(PageRequest.BY_TIME, ADMIN_PAGE_SIZE));
     }
 
-    private void displayRequestsAdmin(List<ServiceRequest> reqs, String title) {
-        StringBuilder sb = new StringBuilder();
-        sb.append("╔════════════════════════════════════════════════════════════╗\n");
-        sb.append("║  ").append(String.format("%-56s", title)).append("  ║\n");
-        sb.append("╚════════════════════════════════════════════════════════════╝\n\n");
-
-        for (ServiceRequest sr : reqs) {
-            sb.append(String.format(
-                """
-                Request ID: %s
-                Citizen ID: %s
-                Type: %s
-                Description: %s
-                Status: %s %s
-                """ +
-                (sr.getAdminNote().isEmpty() ? "" : "Note: %s\n") +
-                "────────────────────────────────────────────────────────────\n\n",
-                sr.getId(),
-                sr.getCitizenId(),
-                sr.getServiceType(),
-                sr.getDescription(),
-                getStatusEmoji(sr.getStatus().name()),
-                sr.getStatus().name(),
-                sr.getAdminNote()
-            ));
-        }
-
-        adminRequestsStatusArea.setText(sb.toString());
+    private void adminShowRequestsPage(PageRequest request) {
+        showPage(adminRequestsStatusArea, requestsTable, progress -> database.getRequestsPage(request),
+            page -> page.getTotal() == 0
+                ? "❌ No service requests in the system."
+                : "⚙️ All Service Requests: " + page.getTotal());
     }
 
     private void adminUpdateRequestStatus(String requestId, ServiceRequest.Status newStatus, String note) {
@@ -1859,24 +2075,16 @@ public class MainController {
             return;
         }
 
-        ServiceRequest targetReq = null;
-        for (ServiceRequest sr : serviceRequests) {
-            if (sr.getId().equals(requestId)) {
-                targetReq = sr;
-                break;
-            }
-        }
-
+        ServiceRequest targetReq = serviceRequests.get(requestId);
         if (targetReq == null) {
             showError("❌ Request not found with ID: " + requestId, adminRequestsStatusArea);
             return;
         }
 
-        targetReq.setStatus(newStatus);
-        targetReq.setAdminNote(note);
-        database.updateRequest(requestId, targetReq);
-
-        showSuccess(
+        ServiceRequest updated = new ServiceRequest(targetReq.getId(), targetReq.getCitizenId(),
+            targetReq.getServiceType(), targetReq.getDescription(), newStatus, note, targetReq.getCreatedAt());
+        serviceRequests.put(updated);
+        whenSaved(database.updateRequest(requestId, updated), () -> showSuccess(
             """
             \u2705 Request status updated!
             
@@ -1884,7 +2092,7 @@ public class MainController {
             "New Status: " + newStatus + "\n" +
             (note.isEmpty() ? "" : "Note: " + note),
             adminRequestsStatusArea
-        );
+        ), message -> showError("❌ Request status could not be saved: " + message, adminRequestsStatusArea));
     }
 
     private void adminSearchDocumentsByCitizen(String citizenId) {
@@ -1893,19 +2101,11 @@ public class MainController {
             return;
         }
 
-        List<Document> filtered = new ArrayList<>();
-        for (Document doc : documents) {
-            if (doc.getCitizenId().equals(citizenId)) {
-                filtered.add(doc);
-            }
-        }
-
-        if (filtered.isEmpty()) {
-            adminDocumentsStatusArea.setText("❌ No documents found for citizen ID: " + citizenId);
-            return;
-        }
-
-        displayDocumentsAdmin(filtered, "Documents for Citizen: " + citizenId);
+        showRows(adminDocumentsStatusArea, documentsTable,
+            progress -> database.findDocumentsByCitizenId(citizenId, SEARCH_LIMIT),
+            rows -> rows.isEmpty()
+                ? "❌ No documents found for citizen ID: " + citizenId
+                : "📄 Documents for Citizen: " + citizenId + ": " + rows.size());
     }
 
     private void adminSearchDocumentsByDocId(String docId) {
@@ -1914,64 +2114,22 @@ public class MainController {
             return;
         }
 
-        Document found = null;
-        for (Document doc : documents) {
-            if (doc.getId().equals(docId)) {
-                found = doc;
-                break;
-            }
-        }
-
-        if (found == null) {
-            adminDocumentsStatusArea.setText("❌ Document not found with ID: " + docId);
-            return;
-        }
-
-        List<Document> list = new ArrayList<>();
-        list.add(found);
-        displayDocumentsAdmin(list, "Document Details");
+        showRows(adminDocumentsStatusArea, documentsTable,
+            progress -> database.findDocumentsById(docId, SEARCH_LIMIT),
+            rows -> rows.isEmpty()
+                ? "❌ Document not found with ID: " + docId
+                : "📄 Documents matching ID: " + docId + ": " + rows.size());
     }
 
     private void adminShowAllDocuments() {
-        if (documents.isEmpty()) {
-            adminDocumentsStatusArea.setText("❌ No documents in the system.");
-            return;
-        }
-
-        displayDocumentsAdmin(documents, "All Documents");
+        adminShowDocumentsPage(PageRequest.first(PageRequest.BY_TIME, ADMIN_PAGE_SIZE));
     }
 
-    @SuppressWarnings("StringConcatenationInsideStringBufferAppend")
-    private void displayDocumentsAdmin(List<Document> docs, String title) {
-        StringBuilder sb = new StringBuilder();
-        sb.append("╔════════════════════════════════════════════════════════════╗\n");
-        sb.append("║  " + String.format("%-56s", title) + "  ║\n");
-        sb.append("╚════════════════════════════════════════════════════════════╝\n\n");
-
-        for (Document doc : docs) {
-            sb.append(String.format(
-                """
-                Document ID: %s
-                Request ID: %s
-                Citizen ID: %s
-                File: %s
-                Status: %s %s
-                Uploaded: %s
-                """ +
-                (doc.getReviewComment().isEmpty() ? "" : "Review: %s\n") +
-                "────────────────────────────────────────────────────────────\n\n",
-                doc.getId(),
-                doc.getAttachedRequestId(),
-                doc.getCitizenId(),
-                doc.getFilePath(),
-                getStatusEmoji(doc.getStatus().name()),
-                doc.getStatus().name(),
-                doc.getUploadTime().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm")),
-                doc.getReviewComment()
-            ));
-        }
-
-        adminDocumentsStatusArea.setText(sb.toString());
+    private void adminShowDocumentsPage(PageRequest request) {
+        showPage(adminDocumentsStatusArea, documentsTable, progress -> database.getDocumentsPage(request),
+            page -> page.getTotal() == 0
+                ? "❌ No documents in the system."
+                : "📄 All Documents: " + page.getTotal());
     }
 
     private void adminUpdateDocumentStatus(String docId, Document. Status newStatus, String remarks) {
@@ -1980,14 +2138,7 @@ public class MainController {
             return;
         }
 
-        Document targetDoc = null;
-        for (Document doc : documents) {
-            if (doc. getId().equals(docId)) {
-                targetDoc = doc;
-                break;
-            }
-        }
-
+        Document targetDoc = documents.get(docId);
         if (targetDoc == null) {
             showError("❌ Document not found.", adminDocumentsStatusArea);
             return;
@@ -2005,40 +2156,16 @@ public class MainController {
         }
 
 
-        targetDoc.setStatus(newStatus);
-        targetDoc.setReviewComment(remarks);
-        database.updateDocument(docId, targetDoc);
-
-        showSuccess(
+        Document updated = new Document(targetDoc.getId(), targetDoc.getAttachedRequestId(),
+            targetDoc.getFilePath(), targetDoc.getCitizenId(), newStatus, remarks, targetDoc.getUploadTime(),
+            LocalDateTime.now());
+        documents.put(updated);
+        whenSaved(database.updateDocument(docId, updated), () -> showSuccess(
             """
             \u2705 Document status updated!
             Status: """ + newStatus,
             adminDocumentsStatusArea
-        );
-    }
-
-    private String generateRequestId(String citizenId) {
-        LocalDateTime now = LocalDateTime.now();
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMddyy-HHmmss");
-        return "REQ-" + citizenId + "-" + now.format(formatter);
-    }
-
-    private String generateDocumentId(String citizenId) {
-        LocalDateTime now = LocalDateTime.now();
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMddyy-HHmmss");
-        return "DOC-" + citizenId + "-" + now.format(formatter);
-    }
-
-    private String getStatusEmoji(String status) {
-        return switch (status) {
-            case "APPROVED" -> "✅";
-            case "REJECTED" -> "❌";
-            case "PENDING" -> "⏳";
-            case "COMPLETED" -> "✔️";
-            case "PROCESSING" -> "⚙️";
-            case "REQUESTED" -> "📩";
-            default -> "❓";
-        };
+        ), message -> showError("❌ Document status could not be saved: " + message, adminDocumentsStatusArea));
     }
 
     private Tab createTab(String title, Node content) {
@@ -2193,7 +2320,7 @@ public class MainController {
                 updateTabStyles.run();
 
             } catch (Exception e) {
-                System.err.println("Error styling tabs: " + e. getMessage());
+                LOG.warn("Error styling tabs", e);
             }
         });
     }
@@ -2435,9 +2562,207 @@ public class MainController {
                "-fx-border-width: 1;";
     }
 
+    /**
+     * Build a report in the background and show it in the given area once it
+     * is ready. A newer report for the same area cancels the older one.
+     */
+    private void showReport(TextArea area, BackgroundTasks.Work<String> builder) {
+        showResult(area, builder, area::setText);
+    }
+
+    /**
+     * Fill a table with rows queried in the background and put a summary
+     * of the result in the status area.
+     */
+    private <T> void showRows(TextArea area, RecordTable<T> table, BackgroundTasks.Work<List<T>> query,
+                              Function<List<T>, String> summary) {
+        showResult(area, query, rows -> {
+            table.setRows(rows);
+            area.setText(summary.apply(rows));
+        });
+    }
+
+    /**
+     * Show one page of a table queried in the background. The table's page
+     * buttons come back here for the neighbouring pages.
+     */
+    private <T> void showPage(TextArea area, RecordTable<T> table, BackgroundTasks.Work<Page<T>> query,
+                              Function<Page<T>, String> summary) {
+        showResult(area, query, page -> {
+            table.showPage(page);
+            area.setText(summary.apply(page));
+        });
+    }
+
+    private <T> void showResult(TextArea area, BackgroundTasks.Work<T> work, Consumer<T> onResult) {
+        if (area == null) return;
+
+        cancelReport(area);
+        area.setText("⏳ Loading...");
+
+        Task<T> task = BackgroundTasks.submit(timed(REPORT_BUILD_TIMER, area.getId(), work), result -> {
+            pendingReports.remove(area);
+            long started = REPORT_SHOW_TIMER.start();
+            ViewRenderEvent event = new ViewRenderEvent();
+            event.view = area.getId();
+            event.records = recordCount(result);
+            event.begin();
+            onResult.accept(result);
+            REPORT_SHOW_TIMER.stop(started);
+            event.commit();
+        }, error -> {
+            pendingReports.remove(area);
+            showError("❌ Could not load records: " + error.getMessage(), area);
+        });
+        watch(area, task);
+    }
+
+    /**
+     * Report a change on the FX thread once it is durable. The change is
+     * already in memory, so a failure here means it may be lost on restart.
+     */
+    private static void whenSaved(CompletableFuture<Void> write, Runnable onSaved, Consumer<String> onFailed) {
+        write.whenComplete((ignored, error) -> Platform.runLater(() -> {
+            if (error == null) {
+                onSaved.run();
+                return;
+            }
+            Throwable cause = error instanceof CompletionException && error.getCause() != null
+                ? error.getCause() : error;
+            LOG.error("Error saving change", cause);
+            onFailed.accept(cause.getMessage());
+        }));
+    }
+
+    private static <T> BackgroundTasks.Work<T> timed(Timer timer, String view, BackgroundTasks.Work<T> work) {
+        return progress -> {
+            long started = timer.start();
+            ViewLoadEvent event = new ViewLoadEvent();
+            event.view = view;
+            event.begin();
+            try {
+                T result = work.run(progress);
+                event.records = recordCount(result);
+                return result;
+            } finally {
+                timer.stop(started);
+                event.commit();
+            }
+        };
+    }
+
+    /**
+     * Rows in a query result, or characters in a report, for the view events.
+     */
+    private static int recordCount(Object result) {
+        if (result instanceof Collection<?> rows) return rows.size();
+        if (result instanceof Map<?, ?> rows) return rows.size();
+        if (result instanceof Page<?> page) return page.getRows().size();
+        if (result instanceof Table<?> table) return table.size();
+        if (result instanceof LoadedData data) return data.requests.size() + data.documents.size();
+        if (result instanceof String text) return text.length();
+        return 0;
+    }
+
+    private void watch(TextArea area, Task<?> task) {
+        task.setOnCancelled(e -> {
+            // Only when cancelled from the header; a replaced report leaves the area to its successor
+            if (pendingReports.get(area) == task) {
+                pendingReports.remove(area);
+                area.setText("⛔ Cancelled.");
+            }
+        });
+
+        pendingReports.put(area, task);
+        trackProgress(task);
+    }
+
+    /**
+     * Run {@code search} once typing in {@code field} pauses for a moment.
+     * Every keystroke cancels the search still running for {@code area};
+     * Enter searches right away.
+     */
+    private void searchAsYouType(TextField field, TextArea area, Consumer<String> search) {
+        PauseTransition debounce = new PauseTransition(SEARCH_DEBOUNCE);
+        debounce.setOnFinished(e -> {
+            String text = field.getText().trim();
+            if (!text.isEmpty()) {
+                search.accept(text);
+            }
+        });
+
+        field.textProperty().addListener((obs, oldText, newText) -> {
+            cancelReport(area);
+            debounce.playFromStart();
+        });
+        field.setOnAction(e -> {
+            debounce.stop();
+            search.accept(field.getText().trim());
+        });
+    }
+
+    private void cancelReport(TextArea area) {
+        Task<?> pending = pendingReports.remove(area);
+        if (pending != null) {
+            pending.cancel();
+        }
+    }
+
+    private void cancelBackgroundWork() {
+        for (Task<?> task : loadTasks) {
+            task.cancel();
+        }
+        loadTasks.clear();
+        if (dashboardRefresh != null) {
+            dashboardRefresh.stop();
+        }
+        if (diagnosticsRefresh != null) {
+            diagnosticsRefresh.stop();
+        }
+        for (Task<?> task : pendingReports.values()) {
+            task.cancel();
+        }
+        pendingReports.clear();
+    }
+
+    /**
+     * Report builders call this for every row. It ends the loop once the
+     * report has been cancelled and publishes progress every 256 rows.
+     */
+    private static boolean keepBuilding(BackgroundTasks.Progress progress, int done, int total) {
+        if ((done & 255) != 0) return true;
+        if (progress.isCancelled()) return false;
+        progress.update(done, total);
+        return true;
+    }
+
+    /**
+     * Show the task's progress in the header until it finishes. The cancel
+     * button next to it cancels the most recently tracked task.
+     */
+    private void trackProgress(Task<?> task) {
+        if (activityBox == null || task.isDone()) return;
+
+        trackedTask = task;
+        activityBar.progressProperty().bind(task.progressProperty());
+        activityBox.setVisible(true);
+        activityBox.setManaged(true);
+
+        task.runningProperty().addListener((obs, wasRunning, running) -> {
+            if (!running && trackedTask == task) {
+                trackedTask = null;
+                activityBar.progressProperty().unbind();
+                activityBox.setVisible(false);
+                activityBox.setManaged(false);
+            }
+        });
+    }
+
     private void showTemporaryMessage(String message, TextArea statusArea, String color) {
         if (statusArea == null) return;
 
+        cancelReport(statusArea);
+
         String originalStyle = statusArea.getStyle();
 
         statusArea.setStyle(
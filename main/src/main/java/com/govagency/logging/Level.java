@@ -0,0 +1,24 @@
+package com.govagency.logging;
+
+import java.util.Locale;
+
+/**
+ * Severity of a log record, lowest first. {@link #OFF} is only used as a
+ * threshold, to switch a logger or the console off.
+ */
+public enum Level {
+    TRACE, DEBUG, INFO, WARN, ERROR, OFF;
+
+    /**
+     * @return the level named by {@code value}, ignoring case, or
+     *         {@code fallback} if it is null or not a level
+     */
+    public static Level parse(String value, Level fallback) {
+        if (value == null) return fallback;
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return fallback;
+        }
+    }
+}
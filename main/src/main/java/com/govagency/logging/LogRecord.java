@@ -0,0 +1,28 @@
+package com.govagency.logging;
+
+/**
+ * One log call, already redacted. Fields alternate key and value; values
+ * are strings, numbers or booleans, so the record can be formatted on the
+ * appender thread without touching caller state.
+ */
+final class LogRecord {
+
+    final long time;
+    final Level level;
+    final String logger;
+    final String thread;
+    final String message;
+    final Object[] fields;
+    final Throwable error;
+
+    LogRecord(long time, Level level, String logger, String thread, String message, Object[] fields,
+              Throwable error) {
+        this.time = time;
+        this.level = level;
+        this.logger = logger;
+        this.thread = thread;
+        this.message = message;
+        this.fields = fields;
+        this.error = error;
+    }
+}
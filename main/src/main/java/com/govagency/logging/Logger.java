@@ -0,0 +1,74 @@
+package com.govagency.logging;
+
+/**
+ * Named source of log records. Get one with {@link Logging#logger} into a
+ * static field.
+ *
+ * Every call takes a fixed message followed by key/value pairs, with an
+ * optional exception last:
+ *
+ * <pre>
+ * LOG.debug("Document saved", "id", d.getId(), "citizenId", d.getCitizenId());
+ * LOG.error("Error saving database", e);
+ * </pre>
+ *
+ * A call below the logger's level returns at once. Otherwise the fields are
+ * redacted on the calling thread and the record is queued for the writer
+ * thread, so the caller never waits on I/O.
+ */
+public final class Logger {
+
+    private final String name;
+    private volatile Level level;
+
+    Logger(String name, Level level) {
+        this.name = name;
+        this.level = level;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Level getLevel() {
+        return level;
+    }
+
+    public void setLevel(Level level) {
+        this.level = level;
+    }
+
+    public boolean isEnabled(Level level) {
+        return level.compareTo(this.level) >= 0 && level != Level.OFF;
+    }
+
+    public boolean isDebugEnabled() {
+        return isEnabled(Level.DEBUG);
+    }
+
+    public void trace(String message, Object... fields) {
+        log(Level.TRACE, message, fields);
+    }
+
+    public void debug(String message, Object... fields) {
+        log(Level.DEBUG, message, fields);
+    }
+
+    public void info(String message, Object... fields) {
+        log(Level.INFO, message, fields);
+    }
+
+    public void warn(String message, Object... fields) {
+        log(Level.WARN, message, fields);
+    }
+
+    public void error(String message, Object... fields) {
+        log(Level.ERROR, message, fields);
+    }
+
+    public void log(Level level, String message, Object... fields) {
+        if (isEnabled(level)) {
+            Logging.submit(this, level, message, fields);
+        }
+    }
+}
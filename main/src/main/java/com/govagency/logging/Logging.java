@@ -0,0 +1,310 @@
+package com.govagency.logging;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAccessor;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Pattern;
+
+import org.json.JSONObject;
+
+/**
+ * Process-wide logging. Records go into a ring buffer and a background
+ * thread writes them as JSON lines to rolling files, so logging never
+ * blocks the caller on disk or console I/O. If the buffer is full the
+ * record is dropped and counted rather than waited for.
+ *
+ * Configured with system properties:
+ * <ul>
+ * <li>{@code govagency.log.level}: threshold for every logger, default INFO</li>
+ * <li>{@code govagency.log.level.<name>}: threshold for one logger and the
+ *     loggers below it, e.g. {@code govagency.log.level.db=DEBUG}</li>
+ * <li>{@code govagency.log.console}: records at or above this level are also
+ *     printed to stderr, default WARN</li>
+ * <li>{@code govagency.log.dir}, {@code govagency.log.maxBytes},
+ *     {@code govagency.log.files}: where to write, when to roll and how many
+ *     files to keep; default logs/, 10 MB and 5</li>
+ * <li>{@code govagency.log.buffer}: ring buffer capacity, default 8192</li>
+ * </ul>
+ *
+ * Sensitive values never reach a log file. Fields whose key names a
+ * password, phone number, email address, token or secret are replaced with
+ * {@code ***}; other values are written only if they are strings, numbers,
+ * booleans, enums or dates, and anything else, such as a model object whose
+ * {@code toString} might include a password, is written as its type name.
+ * Email addresses and password-like pairs in free text, including
+ * exception messages, are masked as well.
+ */
+public final class Logging {
+
+    static final String REDACTED = "***";
+
+    private static final Pattern SENSITIVE_KEY =
+        Pattern.compile("(?i).*(password|passwd|pwd|secret|token|email|phone|number).*");
+    private static final Pattern SENSITIVE_PAIR =
+        Pattern.compile("(?i)(password|passwd|pwd|secret|token|\"number\")(\\W{1,3})([^\\s,;\"'}&]+)");
+    private static final Pattern EMAIL =
+        Pattern.compile("[\\w.+-]+@[\\w-]+(\\.[\\w-]+)+");
+
+    private static final long IDLE_WAIT = TimeUnit.MILLISECONDS.toNanos(50);
+    private static final DateTimeFormatter TIME =
+        DateTimeFormatter.ISO_OFFSET_DATE_TIME.withZone(ZoneId.systemDefault());
+
+    private static final Level ROOT_LEVEL = Level.parse(System.getProperty("govagency.log.level"), Level.INFO);
+    private static final Map<String, Logger> LOGGERS = new ConcurrentHashMap<>();
+    private static final RingBuffer<LogRecord> BUFFER =
+        new RingBuffer<>(Integer.getInteger("govagency.log.buffer", 8192));
+    private static final AtomicLong DROPPED = new AtomicLong();
+    private static final Thread WRITER;
+
+    private static volatile Level consoleLevel =
+        Level.parse(System.getProperty("govagency.log.console"), Level.WARN);
+    private static volatile boolean stopping;
+    private static RollingFileAppender appender;
+
+    static {
+        try {
+            appender = new RollingFileAppender(
+                Path.of(System.getProperty("govagency.log.dir", "logs")), "govagency",
+                Long.getLong("govagency.log.maxBytes", 10L * 1024 * 1024),
+                Integer.getInteger("govagency.log.files", 5));
+        } catch (IOException e) {
+            System.err.println("Cannot open log file, logging to the console instead: " + e.getMessage());
+            consoleLevel = Level.TRACE;
+        }
+        WRITER = new Thread(Logging::run, "log-writer");
+        WRITER.setDaemon(true);
+        WRITER.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(Logging::shutdown, "log-shutdown"));
+    }
+
+    private Logging() {
+    }
+
+    /**
+     * @param name dotted, e.g. {@code db.wal}; its level comes from the most
+     *             specific {@code govagency.log.level.*} property
+     */
+    public static Logger logger(String name) {
+        return LOGGERS.computeIfAbsent(name, n -> new Logger(n, configuredLevel(n)));
+    }
+
+    /**
+     * Records waiting for the writer thread.
+     */
+    public static long getQueueLength() {
+        return BUFFER.size();
+    }
+
+    /**
+     * Records dropped because the buffer was full.
+     */
+    public static long getDroppedCount() {
+        return DROPPED.get();
+    }
+
+    /**
+     * Write out everything queued and stop the writer thread. Records
+     * logged afterwards are dropped.
+     */
+    public static void shutdown() {
+        if (stopping) return;
+        stopping = true;
+        LockSupport.unpark(WRITER);
+        try {
+            WRITER.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    static void submit(Logger logger, Level level, String message, Object[] fields) {
+        Throwable error = null;
+        int pairs = fields.length / 2;
+        if (fields.length % 2 == 1 && fields[fields.length - 1] instanceof Throwable t) {
+            error = t;
+        }
+        Object[] safe = new Object[pairs * 2];
+        for (int i = 0; i < pairs; i++) {
+            String key = String.valueOf(fields[2 * i]);
+            safe[2 * i] = key;
+            safe[2 * i + 1] = SENSITIVE_KEY.matcher(key).matches() ? REDACTED : safeValue(fields[2 * i + 1]);
+        }
+
+        LogRecord record = new LogRecord(System.currentTimeMillis(), level, logger.getName(),
+            Thread.currentThread().getName(), scrub(message), safe, error);
+        if (stopping || !BUFFER.offer(record)) {
+            DROPPED.incrementAndGet();
+        } else if (level.compareTo(Level.WARN) >= 0) {
+            LockSupport.unpark(WRITER);
+        }
+    }
+
+    private static Level configuredLevel(String name) {
+        String prefix = name;
+        while (true) {
+            String value = System.getProperty("govagency.log.level." + prefix);
+            if (value != null) {
+                return Level.parse(value, ROOT_LEVEL);
+            }
+            int dot = prefix.lastIndexOf('.');
+            if (dot < 0) return ROOT_LEVEL;
+            prefix = prefix.substring(0, dot);
+        }
+    }
+
+    private static Object safeValue(Object value) {
+        if (value == null || value instanceof Number || value instanceof Boolean) {
+            return value;
+        }
+        if (value instanceof CharSequence || value instanceof Enum || value instanceof Character
+                || value instanceof TemporalAccessor || value instanceof Path) {
+            return scrub(value.toString());
+        }
+        String type = value.getClass().getSimpleName();
+        return "<" + (type.isEmpty() ? value.getClass().getName() : type) + ">";
+    }
+
+    static String scrub(String text) {
+        if (text == null) return null;
+        String masked = text;
+        if (masked.indexOf('@') >= 0) {
+            masked = EMAIL.matcher(masked).replaceAll(REDACTED);
+        }
+        return SENSITIVE_PAIR.matcher(masked).replaceAll("$1$2" + REDACTED);
+    }
+
+    private static void run() {
+        long reportedDrops = 0;
+        while (true) {
+            LogRecord record = BUFFER.poll();
+            if (record != null) {
+                write(record);
+                continue;
+            }
+
+            long dropped = DROPPED.get();
+            if (dropped > reportedDrops) {
+                write(new LogRecord(System.currentTimeMillis(), Level.WARN, "logging", WRITER.getName(),
+                    "Log buffer full, records dropped", new Object[] {"count", dropped - reportedDrops}, null));
+                reportedDrops = dropped;
+            }
+            if (appender != null) {
+                try {
+                    appender.flush();
+                } catch (IOException e) {
+                    fileFailed(e);
+                }
+            }
+            if (stopping) break;
+            LockSupport.parkNanos(IDLE_WAIT);
+        }
+
+        if (appender != null) {
+            try {
+                appender.close();
+            } catch (IOException e) {
+                System.err.println("Error closing log file: " + e.getMessage());
+            }
+        }
+    }
+
+    private static void write(LogRecord record) {
+        if (appender != null) {
+            try {
+                appender.append(toJson(record));
+            } catch (IOException e) {
+                fileFailed(e);
+            }
+        }
+        if (record.level.compareTo(consoleLevel) >= 0) {
+            System.err.println(toText(record));
+        }
+    }
+
+    // Runs on the writer thread; the console is all that is left
+    private static void fileFailed(IOException e) {
+        System.err.println("Error writing log file, logging to the console instead: " + e.getMessage());
+        try {
+            appender.close();
+        } catch (IOException ignored) {
+            // already failing
+        }
+        appender = null;
+        consoleLevel = Level.TRACE;
+    }
+
+    static String toJson(LogRecord record) {
+        StringBuilder sb = new StringBuilder(160);
+        sb.append("{\"time\":").append(JSONObject.quote(TIME.format(Instant.ofEpochMilli(record.time))));
+        sb.append(",\"level\":\"").append(record.level).append('"');
+        sb.append(",\"logger\":").append(JSONObject.quote(record.logger));
+        sb.append(",\"thread\":").append(JSONObject.quote(record.thread));
+        sb.append(",\"message\":").append(JSONObject.quote(record.message));
+        for (int i = 0; i < record.fields.length; i += 2) {
+            sb.append(',').append(JSONObject.quote((String) record.fields[i])).append(':');
+            appendJsonValue(sb, record.fields[i + 1]);
+        }
+        if (record.error != null) {
+            sb.append(",\"error\":").append(JSONObject.quote(describe(record.error)));
+            if (record.level == Level.ERROR) {
+                sb.append(",\"stack\":").append(JSONObject.quote(stackOf(record.error)));
+            }
+        }
+        return sb.append('}').toString();
+    }
+
+    private static void appendJsonValue(StringBuilder sb, Object value) {
+        if (value == null) {
+            sb.append("null");
+        } else if (value instanceof Boolean
+                || (value instanceof Number n && Double.isFinite(n.doubleValue()))) {
+            sb.append(value);
+        } else {
+            sb.append(JSONObject.quote(value.toString()));
+        }
+    }
+
+    private static String toText(LogRecord record) {
+        StringBuilder sb = new StringBuilder(120);
+        sb.append(String.format(Locale.ROOT, "%-5s", record.level)).append(' ')
+            .append(record.logger).append(": ").append(record.message);
+        for (int i = 0; i < record.fields.length; i += 2) {
+            sb.append(' ').append(record.fields[i]).append('=').append(record.fields[i + 1]);
+        }
+        if (record.error != null) {
+            sb.append(" (").append(describe(record.error)).append(')');
+        }
+        return sb.toString();
+    }
+
+    private static String describe(Throwable error) {
+        StringBuilder sb = new StringBuilder();
+        int depth = 0;
+        for (Throwable t = error; t != null && depth++ < 8; t = t.getCause()) {
+            if (sb.length() > 0) sb.append("; caused by ");
+            sb.append(t.getClass().getName());
+            if (t.getMessage() != null) {
+                sb.append(": ").append(scrub(t.getMessage()));
+            }
+        }
+        return sb.toString();
+    }
+
+    private static String stackOf(Throwable error) {
+        StringBuilder sb = new StringBuilder();
+        for (StackTraceElement frame : error.getStackTrace()) {
+            if (sb.length() > 0) sb.append('\n');
+            sb.append("at ").append(frame);
+        }
+        return sb.toString();
+    }
+}
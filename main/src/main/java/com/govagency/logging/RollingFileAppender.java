@@ -0,0 +1,76 @@
+package com.govagency.logging;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Appends lines to {@code name.log} in a directory. Once the file would
+ * grow past its limit it is renamed to {@code name.1.log}, older files move
+ * up one number, and the oldest is deleted, so at most {@code files} files
+ * are kept. Used from the log writer thread only.
+ */
+final class RollingFileAppender implements AutoCloseable {
+
+    private final Path directory;
+    private final String name;
+    private final long maxBytes;
+    private final int files;
+    private OutputStream out;
+    private long size;
+
+    RollingFileAppender(Path directory, String name, long maxBytes, int files) throws IOException {
+        this.directory = directory;
+        this.name = name;
+        this.maxBytes = maxBytes;
+        this.files = Math.max(1, files);
+        Files.createDirectories(directory);
+        open();
+    }
+
+    void append(String line) throws IOException {
+        byte[] bytes = (line + System.lineSeparator()).getBytes(StandardCharsets.UTF_8);
+        if (size > 0 && size + bytes.length > maxBytes) {
+            roll();
+        }
+        out.write(bytes);
+        size += bytes.length;
+    }
+
+    void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    private void open() throws IOException {
+        Path file = fileOf(0);
+        out = new BufferedOutputStream(Files.newOutputStream(file,
+            StandardOpenOption.CREATE, StandardOpenOption.APPEND), 64 * 1024);
+        size = Files.size(file);
+    }
+
+    private void roll() throws IOException {
+        out.close();
+        Files.deleteIfExists(fileOf(files - 1));
+        for (int i = files - 2; i >= 0; i--) {
+            Path from = fileOf(i);
+            if (Files.exists(from)) {
+                Files.move(from, fileOf(i + 1), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        open();
+    }
+
+    private Path fileOf(int generation) {
+        return directory.resolve(generation == 0 ? name + ".log" : name + "." + generation + ".log");
+    }
+}
@@ -0,0 +1,96 @@
+package com.govagency.metrics;
+
+/**
+ * Counts latencies in buckets that are about 3% wide, so percentiles can be
+ * read from millions of samples in a few kilobytes. Each power of two is
+ * split into 32 equal buckets; values below 32 ns have a bucket each.
+ * Not thread-safe; give every thread its own and {@link #add} them up, or
+ * record through a {@link Timer} and read its {@link Timer#snapshot}.
+ */
+public final class Histogram {
+
+    private static final int SUB_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    static final int BUCKETS = (64 - SUB_BITS + 1) * SUB_BUCKETS;
+
+    private final long[] counts;
+    private long count;
+    private long sum;
+    private long max;
+
+    public Histogram() {
+        this.counts = new long[BUCKETS];
+    }
+
+    Histogram(long[] counts, long sum, long max) {
+        this.counts = counts;
+        for (long c : counts) {
+            count += c;
+        }
+        this.sum = sum;
+        this.max = max;
+    }
+
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        counts[bucketOf(value)]++;
+        count++;
+        sum += value;
+        if (value > max) {
+            max = value;
+        }
+    }
+
+    public void add(Histogram other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] += other.counts[i];
+        }
+        count += other.count;
+        sum += other.sum;
+        max = Math.max(max, other.max);
+    }
+
+    public long count() {
+        return count;
+    }
+
+    public long max() {
+        return max;
+    }
+
+    public long mean() {
+        return count == 0 ? 0 : sum / count;
+    }
+
+    /**
+     * The latency that {@code percentile} percent of the samples do not
+     * exceed, rounded up to the end of its bucket.
+     */
+    public long percentile(double percentile) {
+        if (count == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(max, highestValue(i));
+            }
+        }
+        return max;
+    }
+
+    static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) return (int) value;
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int group = exponent - SUB_BITS + 1;
+        int sub = (int) (value >>> (group - 1)) - SUB_BUCKETS;
+        return group * SUB_BUCKETS + sub;
+    }
+
+    private static long highestValue(int index) {
+        if (index < SUB_BUCKETS) return index;
+        int group = index / SUB_BUCKETS;
+        long mantissa = index % SUB_BUCKETS + SUB_BUCKETS;
+        return ((mantissa + 1) << (group - 1)) - 1;
+    }
+}
@@ -0,0 +1,110 @@
+package com.govagency.metrics;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+import com.govagency.logging.Logging;
+
+/**
+ * Process-wide registry of counters, gauges and timers.
+ *
+ * Metrics are looked up by name once, typically into a static field, and
+ * recorded into directly afterwards, so the registry is never on a hot
+ * path. Nothing runs in the background: an idle metric costs nothing, and
+ * values are only gathered when someone asks for a {@link #snapshot}.
+ *
+ * Recording can be switched off with {@code -Dgovagency.metrics=false}.
+ */
+public final class Metrics {
+
+    static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("govagency.metrics", "true"));
+
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private static final Map<String, Counter> COUNTERS = new ConcurrentHashMap<>();
+    private static final Map<String, Timer> TIMERS = new ConcurrentHashMap<>();
+    private static final Map<String, LongSupplier> GAUGES = new ConcurrentHashMap<>();
+
+    static {
+        gauge("jvm.heap.used.bytes", () -> {
+            Runtime runtime = Runtime.getRuntime();
+            return runtime.totalMemory() - runtime.freeMemory();
+        });
+        gauge("jvm.threads", () -> ManagementFactory.getThreadMXBean().getThreadCount());
+        gauge("log.queue", Logging::getQueueLength);
+        gauge("log.dropped", Logging::getDroppedCount);
+    }
+
+    private Metrics() {
+    }
+
+    public static Counter counter(String name) {
+        return COUNTERS.computeIfAbsent(name, Counter::new);
+    }
+
+    public static Timer timer(String name) {
+        return TIMERS.computeIfAbsent(name, Timer::new);
+    }
+
+    /**
+     * Register a value that is read whenever a snapshot is taken, replacing
+     * any earlier gauge of the same name. The supplier must be cheap and
+     * safe to call from any thread.
+     */
+    public static void gauge(String name, LongSupplier value) {
+        GAUGES.put(name, value);
+    }
+
+    /**
+     * Remove a gauge, but only if it is still the one given, so a newer
+     * registration under the same name is left alone.
+     */
+    public static void removeGauge(String name, LongSupplier value) {
+        GAUGES.remove(name, value);
+    }
+
+    public static MetricsSnapshot snapshot() {
+        Map<String, Long> counters = new TreeMap<>();
+        for (Counter counter : COUNTERS.values()) {
+            counters.put(counter.getName(), counter.get());
+        }
+        Map<String, Long> gauges = new TreeMap<>();
+        for (Map.Entry<String, LongSupplier> gauge : GAUGES.entrySet()) {
+            try {
+                gauges.put(gauge.getKey(), gauge.getValue().getAsLong());
+            } catch (RuntimeException e) {
+                Logging.logger("metrics").warn("Error reading gauge", "gauge", gauge.getKey(), e);
+            }
+        }
+        Map<String, Histogram> timers = new TreeMap<>();
+        for (Timer timer : TIMERS.values()) {
+            timers.put(timer.getName(), timer.snapshot());
+        }
+        return new MetricsSnapshot(LocalDateTime.now(), counters, gauges, timers);
+    }
+
+    /**
+     * Write a snapshot as JSON to a new file in {@code directory}.
+     *
+     * @return the file written
+     */
+    public static Path exportSnapshot(Path directory) throws IOException {
+        MetricsSnapshot snapshot = snapshot();
+        Files.createDirectories(directory);
+        Path file = directory.resolve("metrics-" + snapshot.getTakenAt().format(FILE_TIME) + ".json");
+        Path temp = directory.resolve(file.getFileName() + ".tmp");
+        Files.writeString(temp, snapshot.toJson().toString(2), StandardCharsets.UTF_8);
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        return file;
+    }
+}
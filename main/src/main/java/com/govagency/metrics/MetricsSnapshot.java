@@ -0,0 +1,100 @@
+package com.govagency.metrics;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+
+import org.json.JSONObject;
+
+/**
+ * Values of every metric at one point in time, sorted by name.
+ */
+public final class MetricsSnapshot {
+
+    private final LocalDateTime takenAt;
+    private final Map<String, Long> counters;
+    private final Map<String, Long> gauges;
+    private final Map<String, Histogram> timers;
+
+    MetricsSnapshot(LocalDateTime takenAt, Map<String, Long> counters, Map<String, Long> gauges,
+                    Map<String, Histogram> timers) {
+        this.takenAt = takenAt;
+        this.counters = Collections.unmodifiableMap(counters);
+        this.gauges = Collections.unmodifiableMap(gauges);
+        this.timers = Collections.unmodifiableMap(timers);
+    }
+
+    public LocalDateTime getTakenAt() {
+        return takenAt;
+    }
+
+    public Map<String, Long> getCounters() {
+        return counters;
+    }
+
+    public Map<String, Long> getGauges() {
+        return gauges;
+    }
+
+    public Map<String, Histogram> getTimers() {
+        return timers;
+    }
+
+    /**
+     * Timers are given in milliseconds.
+     */
+    public JSONObject toJson() {
+        JSONObject json = new JSONObject();
+        json.put("takenAt", takenAt.toString());
+        json.put("counters", new JSONObject(counters));
+        json.put("gauges", new JSONObject(gauges));
+
+        JSONObject timerJson = new JSONObject();
+        for (Map.Entry<String, Histogram> entry : timers.entrySet()) {
+            Histogram h = entry.getValue();
+            JSONObject t = new JSONObject();
+            t.put("count", h.count());
+            t.put("meanMs", millis(h.mean()));
+            t.put("p50Ms", millis(h.percentile(50)));
+            t.put("p90Ms", millis(h.percentile(90)));
+            t.put("p99Ms", millis(h.percentile(99)));
+            t.put("p999Ms", millis(h.percentile(99.9)));
+            t.put("maxMs", millis(h.max()));
+            timerJson.put(entry.getKey(), t);
+        }
+        json.put("timers", timerJson);
+        return json;
+    }
+
+    /**
+     * Append a plain-text table of the snapshot. Timers that never ran are
+     * left out.
+     */
+    public StringBuilder appendTo(StringBuilder out) {
+        out.append(String.format(Locale.ROOT, "%-32s %9s %9s %9s %9s %9s %9s%n",
+            "TIMER (ms)", "count", "mean", "p50", "p99", "p99.9", "max"));
+        for (Map.Entry<String, Histogram> entry : timers.entrySet()) {
+            Histogram h = entry.getValue();
+            if (h.count() == 0) continue;
+            out.append(String.format(Locale.ROOT, "%-32s %9d %9.3f %9.3f %9.3f %9.3f %9.3f%n",
+                entry.getKey(), h.count(), millis(h.mean()), millis(h.percentile(50)),
+                millis(h.percentile(99)), millis(h.percentile(99.9)), millis(h.max())));
+        }
+
+        out.append(String.format(Locale.ROOT, "%n%-32s %12s%n", "COUNTER", "value"));
+        for (Map.Entry<String, Long> entry : counters.entrySet()) {
+            out.append(String.format(Locale.ROOT, "%-32s %12d%n", entry.getKey(), entry.getValue()));
+        }
+
+        out.append(String.format(Locale.ROOT, "%n%-32s %12s%n", "GAUGE", "value"));
+        for (Map.Entry<String, Long> entry : gauges.entrySet()) {
+            out.append(String.format(Locale.ROOT, "%-32s %12d%n", entry.getKey(), entry.getValue()));
+        }
+        return out;
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+}
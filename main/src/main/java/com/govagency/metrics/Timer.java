@@ -0,0 +1,73 @@
+package com.govagency.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histogram that any number of threads can record into. Recording
+ * takes no lock: one atomic increment of a bucket, one striped add, and a
+ * compare-and-set only when a new maximum is seen.
+ *
+ * <pre>
+ * long started = SAVE.start();
+ * try {
+ *     ...
+ * } finally {
+ *     SAVE.stop(started);
+ * }
+ * </pre>
+ */
+public final class Timer {
+
+    private final String name;
+    private final AtomicLongArray counts = new AtomicLongArray(Histogram.BUCKETS);
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    Timer(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the start time to pass to {@link #stop}
+     */
+    public long start() {
+        return Metrics.ENABLED ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Record the time since {@code started}.
+     */
+    public void stop(long started) {
+        if (Metrics.ENABLED) {
+            record(System.nanoTime() - started);
+        }
+    }
+
+    public void record(long nanos) {
+        if (!Metrics.ENABLED) return;
+        long value = Math.max(0, nanos);
+        counts.incrementAndGet(Histogram.bucketOf(value));
+        sum.add(value);
+        if (value > max.get()) {
+            max.accumulateAndGet(value, Math::max);
+        }
+    }
+
+    /**
+     * A copy of the samples so far. Samples recorded while the copy is
+     * taken may or may not be in it.
+     */
+    public Histogram snapshot() {
+        long[] copy = new long[Histogram.BUCKETS];
+        for (int i = 0; i < copy.length; i++) {
+            copy[i] = counts.get(i);
+        }
+        return new Histogram(copy, sum.sum(), max.get());
+    }
+}
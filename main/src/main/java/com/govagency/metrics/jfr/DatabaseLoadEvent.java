@@ -0,0 +1,31 @@
+package com.govagency.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One collection file, or the write-ahead log, read while opening the
+ * database.
+ */
+@Name("com.govagency.DatabaseLoad")
+@Label("Database Load")
+@Category({"GovAgency", "Database"})
+@Description("A collection file or the write-ahead log read at startup")
+@StackTrace(false)
+public class DatabaseLoadEvent extends Event {
+
+    @Label("Collection")
+    public String collection;
+
+    @Label("Records")
+    public int records;
+
+    @Label("Bytes Read")
+    @DataAmount
+    public long bytes;
+}
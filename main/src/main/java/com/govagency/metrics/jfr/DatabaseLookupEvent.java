@@ -0,0 +1,56 @@
+package com.govagency.metrics.jfr;
+
+import java.util.List;
+
+import com.govagency.storage.Page;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A read of one or more rows, including the wait for the database lock.
+ */
+@Name("com.govagency.DatabaseLookup")
+@Label("Database Lookup")
+@Category({"GovAgency", "Database"})
+@Description("A read of one or more rows")
+@StackTrace(false)
+public class DatabaseLookupEvent extends Event {
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Collection")
+    public String collection;
+
+    @Label("Records")
+    @Description("Rows returned")
+    public int records;
+
+    public static DatabaseLookupEvent begin(String operation, String collection) {
+        DatabaseLookupEvent event = new DatabaseLookupEvent();
+        event.operation = operation;
+        event.collection = collection;
+        event.begin();
+        return event;
+    }
+
+    public <T> List<T> found(List<T> rows) {
+        records = rows.size();
+        return rows;
+    }
+
+    public <T> Page<T> found(Page<T> page) {
+        records = page.getRows().size();
+        return page;
+    }
+
+    public <T> T found(T row) {
+        records = row == null ? 0 : 1;
+        return row;
+    }
+}
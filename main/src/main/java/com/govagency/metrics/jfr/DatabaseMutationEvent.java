@@ -0,0 +1,48 @@
+package com.govagency.metrics.jfr;
+
+import java.util.concurrent.CompletableFuture;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A change applied in memory and handed to the writer, including the wait
+ * for the database lock. The disk write follows in a {@link WalCommitEvent}.
+ */
+@Name("com.govagency.DatabaseMutation")
+@Label("Database Mutation")
+@Category({"GovAgency", "Database"})
+@Description("A change applied in memory and queued for the write-ahead log")
+@StackTrace(false)
+public class DatabaseMutationEvent extends Event {
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Collection")
+    public String collection;
+
+    @Label("Records")
+    @Description("Write-ahead log records queued")
+    public int records;
+
+    public static DatabaseMutationEvent begin(String operation, String collection) {
+        DatabaseMutationEvent event = new DatabaseMutationEvent();
+        event.operation = operation;
+        event.collection = collection;
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Count one queued record and pass its future through.
+     */
+    public CompletableFuture<Void> logged(CompletableFuture<Void> durable) {
+        records++;
+        return durable;
+    }
+}
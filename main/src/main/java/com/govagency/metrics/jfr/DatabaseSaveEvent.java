@@ -0,0 +1,33 @@
+package com.govagency.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One collection file rewritten by a checkpoint.
+ */
+@Name("com.govagency.DatabaseSave")
+@Label("Database Save")
+@Category({"GovAgency", "Database"})
+@Description("A collection file rewritten by a checkpoint")
+@StackTrace(false)
+public class DatabaseSaveEvent extends Event {
+
+    @Label("Collection")
+    public String collection;
+
+    @Label("Records")
+    public int records;
+
+    @Label("Bytes Written")
+    @DataAmount
+    public long bytes;
+
+    @Label("Succeeded")
+    public boolean succeeded;
+}
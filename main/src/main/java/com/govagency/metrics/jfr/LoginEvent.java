@@ -0,0 +1,27 @@
+package com.govagency.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A login attempt, up to the portal being built. Carries no email or
+ * password.
+ */
+@Name("com.govagency.Login")
+@Label("Login")
+@Category({"GovAgency", "UI"})
+@Description("A login attempt, up to the portal being shown")
+@StackTrace(false)
+public class LoginEvent extends Event {
+
+    @Label("Role")
+    @Description("admin or citizen")
+    public String role;
+
+    @Label("Succeeded")
+    public boolean succeeded;
+}
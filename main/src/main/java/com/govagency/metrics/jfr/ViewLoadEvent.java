@@ -0,0 +1,26 @@
+package com.govagency.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Records queried or a report built for a screen, off the FX thread.
+ */
+@Name("com.govagency.ViewLoad")
+@Label("View Load")
+@Category({"GovAgency", "UI"})
+@Description("Records loaded or a report built in the background for a screen")
+@StackTrace(false)
+public class ViewLoadEvent extends Event {
+
+    @Label("View")
+    public String view;
+
+    @Label("Records")
+    @Description("Rows loaded, or characters of a text report")
+    public int records;
+}
@@ -0,0 +1,27 @@
+package com.govagency.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Loaded records or a report put on screen. Runs on the FX thread, so its
+ * duration is time the UI could not respond.
+ */
+@Name("com.govagency.ViewRender")
+@Label("View Render")
+@Category({"GovAgency", "UI"})
+@Description("Loaded records or a report put on screen, on the FX thread")
+@StackTrace(false)
+public class ViewRenderEvent extends Event {
+
+    @Label("View")
+    public String view;
+
+    @Label("Records")
+    @Description("Rows shown, or characters of a text report")
+    public int records;
+}
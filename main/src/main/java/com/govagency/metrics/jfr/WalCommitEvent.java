@@ -0,0 +1,32 @@
+package com.govagency.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One batch of mutations appended to the write-ahead log and forced to disk.
+ * Mutation events have no byte count of their own; their records reach the
+ * disk in these batches.
+ */
+@Name("com.govagency.WalCommit")
+@Label("WAL Commit")
+@Category({"GovAgency", "Database"})
+@Description("A batch of mutations appended to the write-ahead log with one fsync")
+@StackTrace(false)
+public class WalCommitEvent extends Event {
+
+    @Label("Collection")
+    public String collection = "wal";
+
+    @Label("Records")
+    public int records;
+
+    @Label("Bytes Written")
+    @DataAmount
+    public long bytes;
+}
@@ -31,13 +31,18 @@ public class Archive {
 
     public Archive(String archiveId, String entityId, ArchiveType type, 
                    String details, String archivedBy) {
+        this(archiveId, entityId, type, details, LocalDateTime.now(), archivedBy, "");
+    }
+
+    public Archive(String archiveId, String entityId, ArchiveType type, String details,
+                   LocalDateTime archivedAt, String archivedBy, String reason) {
         this.archiveId = archiveId;
         this.entityId = entityId;
         this.type = type;
         this.details = details;
-        this.archivedAt = LocalDateTime.now();
+        this.archivedAt = archivedAt;
         this.archivedBy = archivedBy;
-        this.reason = "";
+        this.reason = reason != null ? reason : "";
     }
 
     // Getters and Setters
@@ -4,6 +4,9 @@ import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 
 public class Document {
+    /** Date and time as shown for uploads, and in tables and reports. */
+    public static final DateTimeFormatter UPLOAD_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
     public enum Status {
         PENDING("⏳ Pending Review"),
         APPROVED("✅ Approved"),
@@ -30,13 +33,19 @@ public class Document {
     private LocalDateTime reviewTime;
 
     public Document(String documentId, String requestId, String filePath, String citizenId) {
+        this(documentId, requestId, filePath, citizenId, Status.PENDING, "", LocalDateTime.now(), null);
+    }
+
+    public Document(String documentId, String requestId, String filePath, String citizenId,
+                    Status status, String reviewComment, LocalDateTime uploadTime, LocalDateTime reviewTime) {
         this.documentId = documentId;
         this.attachedRequestId = requestId;
         this.filePath = filePath;
         this.citizenId = citizenId;
-        this.status = Status.PENDING;
-        this.uploadTime = LocalDateTime.now();
-        this.reviewComment = "";
+        this.status = status;
+        this.reviewComment = reviewComment != null ? reviewComment : "";
+        this.uploadTime = uploadTime;
+        this.reviewTime = reviewTime;
     }
 
     // Getters and Setters
@@ -83,13 +92,10 @@ public class Document {
 
     @Override
     public String toString() {
-        return String.format(
-            "Doc ID: %s | Request: %s | File: %s | Status: %s | Uploaded: %s",
-            documentId,
-            attachedRequestId,
-            filePath,
-            status.getDisplay(),
-            uploadTime.format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm"))
-        );
+        return "Doc ID: " + documentId +
+                " | Request: " + attachedRequestId +
+                " | File: " + filePath +
+                " | Status: " + status.getDisplay() +
+                " | Uploaded: " + uploadTime.format(UPLOAD_TIME_FORMAT);
     }
 }
\ No newline at end of file
@@ -1,4 +1,7 @@
 package com.govagency.model;
+
+import java.time.LocalDateTime;
+
 public class ServiceRequest {
     
     public enum Status {
@@ -14,17 +17,27 @@ public class ServiceRequest {
     private final String description;
     private Status status;
     private String adminNote;
+    private final LocalDateTime createdAt;
 
     /**
      * Constructor - Create a new service request
      */
     public ServiceRequest(String id, String citizenId, String serviceType, String description) {
+        this(id, citizenId, serviceType, description, Status.REQUESTED, "", LocalDateTime.now());
+    }
+
+    /**
+     * Constructor - Restore a saved service request
+     */
+    public ServiceRequest(String id, String citizenId, String serviceType, String description,
+                          Status status, String adminNote, LocalDateTime createdAt) {
         this.id = id;
         this.citizenId = citizenId;
         this.serviceType = serviceType;
         this.description = description;
-        this.status = Status.REQUESTED;
-        this.adminNote = "";
+        this.status = status;
+        this.adminNote = adminNote != null ? adminNote : "";
+        this.createdAt = createdAt;
     }
 
     // =============== GETTERS ===============
@@ -53,6 +66,10 @@ public class ServiceRequest {
         return adminNote;
     }
 
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
     // =============== SETTERS ===============
 
     public void setStatus(Status status) {
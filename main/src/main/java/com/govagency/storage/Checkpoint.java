@@ -0,0 +1,235 @@
+package com.govagency.storage;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedWriter;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Crash-safe checkpoint files.
+ *
+ * A checkpoint is written to a temp file, fsynced, and renamed over the
+ * target in a single atomic move, so the target is always either the old or
+ * the new generation and never a truncated mix. The file ends with a CRC32
+ * footer line that is checked on read. Before the move, the generation
+ * being replaced is hard-linked (or, where links are not supported, copied)
+ * to a ".bak" file, which therefore never replaces the target.
+ */
+public final class Checkpoint {
+
+    private static final String FOOTER_PREFIX = "#crc32=";
+    // "\n#crc32=" + 8 hex digits + "\n"
+    private static final int FOOTER_LENGTH = 1 + FOOTER_PREFIX.length() + 8 + 1;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private Checkpoint() {
+    }
+
+    public static class CorruptCheckpointException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        public CorruptCheckpointException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * Streams the checkpoint body to the given writer.
+     */
+    public interface BodyWriter {
+        void writeTo(Writer out) throws IOException;
+    }
+
+    public static Path backupOf(Path target) {
+        return target.resolveSibling(target.getFileName() + ".bak");
+    }
+
+    private static Path tempOf(Path target) {
+        return target.resolveSibling(target.getFileName() + ".tmp");
+    }
+
+    /**
+     * @return the size of the file written, in bytes
+     */
+    public static long write(Path target, BodyWriter body) throws IOException {
+        Path temp = tempOf(target);
+        CRC32 crc = new CRC32();
+        long size;
+
+        try (FileChannel channel = FileChannel.open(temp,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            // Not closed: that would close the channel before the footer is written
+            OutputStream raw = Channels.newOutputStream(channel);
+            Writer out = new BufferedWriter(
+                new OutputStreamWriter(new CheckedOutputStream(raw, crc), StandardCharsets.UTF_8), BUFFER_SIZE);
+            body.writeTo(out);
+            out.flush();
+
+            writeFully(channel, ByteBuffer.wrap(footer(crc.getValue())));
+            channel.force(true);
+            size = channel.size();
+        }
+
+        if (Files.exists(target)) {
+            keepBackup(target);
+        }
+        move(temp, target);
+        syncDirectory(target);
+        return size;
+    }
+
+    // Leaves the target in place, so there is no moment without one
+    private static void keepBackup(Path target) throws IOException {
+        Path backup = backupOf(target);
+        Path staged = tempOf(backup);
+        Files.deleteIfExists(staged);
+        try {
+            Files.createLink(staged, target);
+        } catch (IOException | UnsupportedOperationException e) {
+            Files.copy(target, staged);
+            try (FileChannel channel = FileChannel.open(staged, StandardOpenOption.WRITE)) {
+                channel.force(true);
+            }
+        }
+        move(staged, backup);
+    }
+
+    /**
+     * Open a checkpoint for reading after verifying its footer. The returned
+     * reader stops at the end of the body. Files written before checksums
+     * were introduced have no footer and are read as-is.
+     */
+    public static Reader openReader(Path target) throws IOException {
+        long bodyLength = verify(target);
+        InputStream in = new BufferedInputStream(Files.newInputStream(target), BUFFER_SIZE);
+        return new InputStreamReader(new LimitedInputStream(in, bodyLength), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Check the CRC of the body against the footer without loading the file.
+     *
+     * @return the length of the body in bytes
+     */
+    private static long verify(Path target) throws IOException {
+        try (FileChannel channel = FileChannel.open(target, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < FOOTER_LENGTH) {
+                return size;
+            }
+
+            ByteBuffer tail = ByteBuffer.allocate(FOOTER_LENGTH);
+            while (tail.hasRemaining()) {
+                if (channel.read(tail, size - FOOTER_LENGTH + tail.position()) < 0) break;
+            }
+            String footer = new String(tail.array(), StandardCharsets.US_ASCII);
+            if (!footer.startsWith("\n" + FOOTER_PREFIX) || !footer.endsWith("\n")) {
+                return size;
+            }
+
+            String expected = footer.substring(1 + FOOTER_PREFIX.length(), FOOTER_LENGTH - 1);
+            long bodyLength = size - FOOTER_LENGTH;
+
+            CRC32 crc = new CRC32();
+            ByteBuffer buf = ByteBuffer.allocateDirect(BUFFER_SIZE);
+            long position = 0;
+            while (position < bodyLength) {
+                buf.clear();
+                buf.limit((int) Math.min(buf.capacity(), bodyLength - position));
+                int n = channel.read(buf, position);
+                if (n < 0) break;
+                buf.flip();
+                crc.update(buf);
+                position += n;
+            }
+
+            String actual = String.format("%08x", crc.getValue());
+            if (!actual.equals(expected)) {
+                throw new CorruptCheckpointException(
+                    "Checksum mismatch in " + target + " (expected " + expected + ", got " + actual + ")");
+            }
+            return bodyLength;
+        }
+    }
+
+    /**
+     * Move a damaged checkpoint out of the way so that the next save does not
+     * rotate it into the backup slot.
+     */
+    public static Path quarantine(Path target) throws IOException {
+        Path corrupt = target.resolveSibling(target.getFileName() + ".corrupt-" + System.currentTimeMillis());
+        Files.move(target, corrupt, StandardCopyOption.REPLACE_EXISTING);
+        return corrupt;
+    }
+
+    private static byte[] footer(long crc) {
+        return ("\n" + FOOTER_PREFIX + String.format("%08x", crc) + "\n").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static class LimitedInputStream extends FilterInputStream {
+        private long remaining;
+
+        LimitedInputStream(InputStream in, long limit) {
+            super(in);
+            this.remaining = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining <= 0) return -1;
+            int b = super.read();
+            if (b >= 0) remaining--;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (remaining <= 0) return -1;
+            int n = super.read(b, off, (int) Math.min(len, remaining));
+            if (n > 0) remaining -= n;
+            return n;
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buf) throws IOException {
+        while (buf.hasRemaining()) {
+            channel.write(buf);
+        }
+    }
+
+    private static void move(Path from, Path to) throws IOException {
+        try {
+            Files.move(from, to, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(from, to, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static void syncDirectory(Path target) {
+        Path dir = target.toAbsolutePath().getParent();
+        if (dir == null) return;
+
+        // Not supported on every platform (e.g. Windows); the rename itself is still atomic there.
+        try (FileChannel channel = FileChannel.open(dir, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException | UnsupportedOperationException e) {
+            // best effort
+        }
+    }
+}
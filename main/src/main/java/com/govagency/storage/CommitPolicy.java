@@ -0,0 +1,66 @@
+package com.govagency.storage;
+
+import java.time.Duration;
+
+import com.govagency.logging.Logger;
+import com.govagency.logging.Logging;
+
+/**
+ * How the background writer groups mutations into WAL flushes.
+ *
+ * After the first record of a batch arrives the writer waits at most
+ * {@code maxLatency} for more, and never puts more than {@code maxBatch}
+ * records into one flush. A zero latency still batches whatever is already
+ * queued, it just never waits for more.
+ */
+public final class CommitPolicy {
+
+    private static final Logger LOG = Logging.logger("db");
+
+    public static final CommitPolicy DEFAULT = new CommitPolicy(Duration.ofMillis(5), 256);
+
+    private final Duration maxLatency;
+    private final int maxBatch;
+
+    public CommitPolicy(Duration maxLatency, int maxBatch) {
+        if (maxLatency == null || maxLatency.isNegative()) {
+            throw new IllegalArgumentException("maxLatency must be zero or positive");
+        }
+        if (maxBatch < 1) {
+            throw new IllegalArgumentException("maxBatch must be at least 1");
+        }
+        this.maxLatency = maxLatency;
+        this.maxBatch = maxBatch;
+    }
+
+    /**
+     * Policy from the {@code govagency.db.maxLatencyMs} and
+     * {@code govagency.db.maxBatch} system properties, falling back to
+     * {@link #DEFAULT} for anything unset or invalid.
+     */
+    public static CommitPolicy fromSystemProperties() {
+        long latencyMs = DEFAULT.maxLatency.toMillis();
+        int batch = DEFAULT.maxBatch;
+        try {
+            latencyMs = Long.parseLong(System.getProperty("govagency.db.maxLatencyMs", String.valueOf(latencyMs)));
+            batch = Integer.parseInt(System.getProperty("govagency.db.maxBatch", String.valueOf(batch)));
+            return new CommitPolicy(Duration.ofMillis(latencyMs), batch);
+        } catch (IllegalArgumentException e) {
+            LOG.warn("Invalid commit policy settings, using defaults", e);
+            return DEFAULT;
+        }
+    }
+
+    public Duration getMaxLatency() {
+        return maxLatency;
+    }
+
+    public int getMaxBatch() {
+        return maxBatch;
+    }
+
+    @Override
+    public String toString() {
+        return "CommitPolicy{maxLatency=" + maxLatency.toMillis() + "ms, maxBatch=" + maxBatch + '}';
+    }
+}
@@ -0,0 +1,57 @@
+package com.govagency.storage;
+
+import java.util.Objects;
+
+/**
+ * Position of a row in one of a table's sort orders: the row's sort value,
+ * with its id to break ties. A keyset page starts just after or just before
+ * a cursor, so it stays correct while rows are added or removed elsewhere.
+ */
+public final class Cursor implements Comparable<Cursor> {
+
+    private final Comparable<?> value;
+    private final String id;
+
+    public Cursor(Comparable<?> value, String id) {
+        this.value = value;
+        this.id = Objects.requireNonNull(id, "id");
+    }
+
+    public Comparable<?> getValue() {
+        return value;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    // Rows without a sort value come first
+    @Override
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public int compareTo(Cursor other) {
+        if (value != other.value) {
+            if (value == null) return -1;
+            if (other.value == null) return 1;
+            int c = ((Comparable) value).compareTo(other.value);
+            if (c != 0) return c;
+        }
+        return id.compareTo(other.id);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Cursor other)) return false;
+        return Objects.equals(value, other.value) && id.equals(other.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(value, id);
+    }
+
+    @Override
+    public String toString() {
+        return "Cursor{value=" + value + ", id=" + id + '}';
+    }
+}
@@ -0,0 +1,263 @@
+package com.govagency.storage;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.json.JSONObject;
+
+import com.govagency.logging.Logger;
+import com.govagency.logging.Logging;
+import com.govagency.metrics.Counter;
+import com.govagency.metrics.Metrics;
+import com.govagency.metrics.Timer;
+import com.govagency.metrics.jfr.WalCommitEvent;
+
+/**
+ * Background thread that makes database mutations durable.
+ *
+ * Callers apply a change in memory and submit its WAL record here; the
+ * writer appends queued records in batches with a single fsync per batch
+ * and completes each record's future once it is on disk. When the log grows
+ * past the checkpoint interval, the writer runs the checkpoint itself, so it
+ * is the only thread that ever touches the WAL.
+ */
+public class GroupCommitWriter {
+
+    /**
+     * Writes the changed collection files. Runs on the writer thread.
+     *
+     * @return true if everything was written
+     */
+    public interface Checkpointer {
+        boolean checkpoint();
+    }
+
+    private enum Kind { RECORD, FLUSH, CHECKPOINT, STOP }
+
+    private static final Logger LOG = Logging.logger("db.wal");
+
+    // One append and fsync per batch; records / batches is the average batch size
+    private static final Timer COMMIT = Metrics.timer("db.wal.commit");
+    private static final Counter COMMITTED_RECORDS = Metrics.counter("db.wal.records");
+    private static final Counter BATCHES = Metrics.counter("db.wal.batches");
+
+    private static class Entry {
+        final Kind kind;
+        final JSONObject record;
+        final CompletableFuture<Void> done = new CompletableFuture<>();
+
+        Entry(Kind kind, JSONObject record) {
+            this.kind = kind;
+            this.record = record;
+        }
+    }
+
+    private final WriteAheadLog wal;
+    private final CommitPolicy policy;
+    private final int checkpointInterval;
+    private final Checkpointer checkpointer;
+    private final BlockingQueue<Entry> queue = new LinkedBlockingQueue<>();
+    private final Thread thread;
+    private boolean stopped;
+
+    /**
+     * @param wal the log to append to, or null to fall back to a checkpoint
+     *            per batch
+     */
+    public GroupCommitWriter(WriteAheadLog wal, CommitPolicy policy, int checkpointInterval,
+                             Checkpointer checkpointer) {
+        this.wal = wal;
+        this.policy = policy;
+        this.checkpointInterval = checkpointInterval;
+        this.checkpointer = checkpointer;
+        this.thread = new Thread(this::run, "database-writer");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Queue a record. Callers must submit records in the same order they
+     * applied the changes, i.e. while still holding the database lock.
+     *
+     * @return completes once the record is durable
+     */
+    public CompletableFuture<Void> submit(JSONObject record) {
+        return enqueue(new Entry(Kind.RECORD, record));
+    }
+
+    /**
+     * @return completes once every record submitted before it is durable
+     */
+    public CompletableFuture<Void> flush() {
+        return enqueue(new Entry(Kind.FLUSH, null));
+    }
+
+    /**
+     * @return completes once the collection files include every record
+     *         submitted before it
+     */
+    public CompletableFuture<Void> checkpoint() {
+        return enqueue(new Entry(Kind.CHECKPOINT, null));
+    }
+
+    /**
+     * Write out everything still queued, checkpoint, and stop the thread.
+     * Later submissions fail.
+     */
+    public void close() {
+        synchronized (this) {
+            if (stopped) return;
+            queue.add(new Entry(Kind.STOP, null));
+            stopped = true;
+        }
+
+        boolean interrupted = false;
+        while (thread.isAlive()) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Number of records and requests waiting for the writer thread.
+     */
+    public int getQueueLength() {
+        return queue.size();
+    }
+
+    private synchronized CompletableFuture<Void> enqueue(Entry entry) {
+        if (stopped) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Database writer is closed"));
+        }
+        queue.add(entry);
+        return entry.done;
+    }
+
+    private void run() {
+        List<Entry> batch = new ArrayList<>();
+        while (true) {
+            try {
+                batch.add(queue.take());
+                collect(batch);
+            } catch (InterruptedException e) {
+                // Only close() stops the writer; keep draining
+                if (batch.isEmpty()) continue;
+            }
+
+            Entry last = batch.get(batch.size() - 1);
+            writeRecords(batch);
+
+            switch (last.kind) {
+                case FLUSH -> last.done.complete(null);
+                case CHECKPOINT, STOP -> complete(last, runCheckpoint());
+                case RECORD -> {
+                    if (wal != null && wal.getRecordCount() >= checkpointInterval) {
+                        runCheckpoint();
+                    }
+                }
+            }
+
+            batch.clear();
+            if (last.kind == Kind.STOP) return;
+        }
+    }
+
+    /**
+     * Gather more records into the batch until it is full, the latency budget
+     * runs out, or a control entry arrives (which always ends a batch).
+     */
+    private void collect(List<Entry> batch) throws InterruptedException {
+        if (batch.get(0).kind != Kind.RECORD) return;
+
+        long deadline = System.nanoTime() + policy.getMaxLatency().toNanos();
+        while (batch.size() < policy.getMaxBatch()) {
+            long wait = deadline - System.nanoTime();
+            Entry next = wait > 0 ? queue.poll(wait, TimeUnit.NANOSECONDS) : queue.poll();
+            if (next == null) return;
+
+            batch.add(next);
+            if (next.kind != Kind.RECORD) return;
+        }
+    }
+
+    private void writeRecords(List<Entry> batch) {
+        List<JSONObject> records = new ArrayList<>(batch.size());
+        for (Entry e : batch) {
+            if (e.kind == Kind.RECORD) {
+                records.add(e.record);
+            }
+        }
+        if (records.isEmpty()) return;
+
+        boolean durable;
+        if (wal == null) {
+            durable = runCheckpoint();
+        } else {
+            long started = COMMIT.start();
+            WalCommitEvent event = new WalCommitEvent();
+            event.records = records.size();
+            event.begin();
+            try {
+                event.bytes = wal.appendAll(records);
+                durable = true;
+                COMMITTED_RECORDS.add(records.size());
+                BATCHES.increment();
+            } catch (IOException e) {
+                LOG.error("Error appending to write-ahead log", e);
+                durable = runCheckpoint();
+            } finally {
+                COMMIT.stop(started);
+                event.commit();
+            }
+        }
+
+        for (Entry e : batch) {
+            if (e.kind == Kind.RECORD) {
+                complete(e, durable);
+            }
+        }
+    }
+
+    /**
+     * Checkpoint and clear the log. The checkpointer snapshots the tables
+     * under the database lock, after every record already in the log was
+     * applied in memory. Only this thread appends to the log, so at the time
+     * of the reset it holds nothing newer than the snapshot; records still
+     * queued are appended afterwards and simply replay onto the snapshot.
+     */
+    private boolean runCheckpoint() {
+        try {
+            if (!checkpointer.checkpoint()) return false;
+        } catch (RuntimeException e) {
+            LOG.error("Error writing checkpoint", e);
+            return false;
+        }
+        if (wal == null) return true;
+
+        try {
+            wal.reset();
+        } catch (IOException e) {
+            LOG.error("Error resetting write-ahead log", e);
+        }
+        return true;
+    }
+
+    private static void complete(Entry entry, boolean durable) {
+        if (durable) {
+            entry.done.complete(null);
+        } else {
+            entry.done.completeExceptionally(new IOException("Change could not be written to disk"));
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package com.govagency.storage;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.govagency.logging.Logger;
+import com.govagency.logging.Logging;
+
+/**
+ * Hands out unique, increasing ids of the form
+ * {@code PREFIX-yyMMdd-NODE-SEQUENCE}, e.g. "REQ-261017-000-0000000042".
+ * Every part has a fixed width, so ids of one prefix sort as strings in
+ * the order they were created on a node.
+ *
+ * The sequence is an {@link AtomicLong}, so handing out an id takes no lock.
+ * Sequence numbers are reserved in blocks: no id is handed out before the
+ * upper limit of its block is durable through the {@link Reserver}. The
+ * next block is reserved in the background once half of the current one
+ * is used, so callers only wait if ids are taken faster than a reservation
+ * is written. After a restart the sequence resumes at the last reserved
+ * limit, so no id is ever handed out twice; at most two blocks of numbers
+ * go unused. The date only makes ids easier to read, uniqueness comes from
+ * the sequence alone.
+ *
+ * Every node (application instance sharing the same data) has its own
+ * sequence and high-water mark, and its node number is part of the id, so
+ * instances never need to coordinate.
+ */
+public class IdGenerator {
+
+    public static final int BLOCK_SIZE = 100;
+    public static final int MAX_NODE = 999;
+
+    private static final Logger LOG = Logging.logger("db");
+
+    private static final DateTimeFormatter DAY_FORMAT = DateTimeFormatter.ofPattern("yyMMdd");
+    private static final int NODE_DIGITS = 3;
+    private static final int SEQUENCE_DIGITS = 10;
+    private static final long MAX_SEQUENCE = 9_999_999_999L;
+
+    /**
+     * Persists a high-water mark. Marks are passed in increasing order and
+     * must become durable in that order.
+     */
+    public interface Reserver {
+        /**
+         * @return completes once the mark is durable, since ids below it
+         *         are handed out as soon as it does
+         */
+        CompletableFuture<Void> reserve(HighWaterMark mark);
+    }
+
+    /**
+     * The highest sequence number reserved so far for one prefix on one node.
+     */
+    public static final class HighWaterMark {
+        private final String key;
+        private final long limit;
+
+        public HighWaterMark(String key, long limit) {
+            this.key = key;
+            this.limit = limit;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        /** Sequence numbers below this have been reserved. */
+        public long getLimit() {
+            return limit;
+        }
+    }
+
+    // The formatted date, recomputed once a day
+    private static final class Day {
+        final long epochDay;
+        final String text;
+
+        Day(long epochDay, String text) {
+            this.epochDay = epochDay;
+            this.text = text;
+        }
+    }
+
+    private final String prefix;
+    private final int node;
+    private final String key;
+    private final Reserver reserver;
+    private final AtomicLong next;
+    // Durable limit; ids below it may be handed out
+    private volatile long limit;
+    // Highest limit asked of the reserver, and the reservation writing it; guarded by this
+    private long requested;
+    private CompletableFuture<Void> reserving = CompletableFuture.completedFuture(null);
+    private volatile Day today = new Day(Long.MIN_VALUE, "");
+
+    /**
+     * @param reservedLimit the limit last made durable for this prefix and
+     *                      node, or 0 if none was
+     */
+    public IdGenerator(String prefix, int node, long reservedLimit, Reserver reserver) {
+        if (node < 0 || node > MAX_NODE) {
+            throw new IllegalArgumentException("node must be between 0 and " + MAX_NODE);
+        }
+        this.prefix = prefix;
+        this.node = node;
+        this.key = key(prefix, node);
+        this.reserver = reserver;
+        this.limit = reservedLimit;
+        this.requested = reservedLimit;
+        this.next = new AtomicLong(Math.max(1, reservedLimit));
+    }
+
+    /**
+     * Key under which the high-water mark of a prefix on a node is stored.
+     */
+    public static String key(String prefix, int node) {
+        return prefix + "@" + node;
+    }
+
+    /**
+     * Node number from the {@code govagency.node} system property, or 0 if
+     * it is unset or invalid.
+     */
+    public static int nodeFromSystemProperties() {
+        try {
+            int node = Integer.parseInt(System.getProperty("govagency.node", "0"));
+            if (node >= 0 && node <= MAX_NODE) {
+                return node;
+            }
+        } catch (NumberFormatException e) {
+            // fall through
+        }
+        LOG.warn("Invalid govagency.node setting, using node 0");
+        return 0;
+    }
+
+    /**
+     * Start reserving the first block without handing out an id, so the
+     * first call to {@link #next} does not have to wait for it.
+     */
+    public void reserveAhead() {
+        reserveAhead(next.get());
+    }
+
+    /**
+     * @throws RuntimeException if the block of the id could not be reserved
+     * @throws IllegalStateException once the sequence no longer fits its width
+     */
+    public String next() {
+        long sequence = next.getAndIncrement();
+        if (sequence > MAX_SEQUENCE) {
+            throw new IllegalStateException("Ids exhausted for " + key);
+        }
+        if (sequence + BLOCK_SIZE / 2 >= limit) {
+            reserveAhead(sequence);
+        }
+
+        StringBuilder id = new StringBuilder(prefix.length() + 9 + NODE_DIGITS + SEQUENCE_DIGITS);
+        id.append(prefix).append('-').append(day()).append('-');
+        appendPadded(id, node, NODE_DIGITS).append('-');
+        return appendPadded(id, sequence, SEQUENCE_DIGITS).toString();
+    }
+
+    // Asks for the next block once less than half of the current one is left,
+    // and waits only if the sequence's own block is not durable yet
+    private void reserveAhead(long sequence) {
+        CompletableFuture<Void> wait;
+        synchronized (this) {
+            long wanted = requested;
+            while (sequence + BLOCK_SIZE / 2 >= wanted) {
+                wanted += BLOCK_SIZE;
+            }
+            if (wanted > requested) {
+                long target = wanted;
+                requested = target;
+                reserving = reserver.reserve(new HighWaterMark(key, target))
+                    .whenComplete((ignored, error) -> reserved(target, error));
+            }
+            wait = sequence >= limit ? reserving : null;
+        }
+        if (wait != null) {
+            wait.join();
+        }
+    }
+
+    private synchronized void reserved(long target, Throwable error) {
+        if (error == null) {
+            limit = Math.max(limit, target);
+        } else {
+            LOG.error("Could not reserve ids", "key", key, "limit", target, error);
+            // Ask again on the next call
+            requested = Math.min(requested, limit);
+        }
+    }
+
+    private static StringBuilder appendPadded(StringBuilder sb, long value, int digits) {
+        String text = Long.toString(value);
+        for (int i = text.length(); i < digits; i++) {
+            sb.append('0');
+        }
+        return sb.append(text);
+    }
+
+    private String day() {
+        LocalDate date = LocalDate.now();
+        Day current = today;
+        if (current.epochDay != date.toEpochDay()) {
+            current = new Day(date.toEpochDay(), date.format(DAY_FORMAT));
+            today = current;
+        }
+        return current.text;
+    }
+}
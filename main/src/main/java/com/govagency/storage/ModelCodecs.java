@@ -0,0 +1,154 @@
+package com.govagency.storage;
+
+import java.time.LocalDateTime;
+
+import org.json.JSONObject;
+
+import com.govagency.model.Archive;
+import com.govagency.model.Citizen;
+import com.govagency.model.Document;
+import com.govagency.model.ServiceRequest;
+
+/**
+ * JSON codecs for the model classes. These are the only place that knows the
+ * on-disk field names.
+ */
+public final class ModelCodecs {
+
+    private ModelCodecs() {
+    }
+
+    public static final RowCodec<Citizen> CITIZEN = new RowCodec<>() {
+        @Override
+        public JSONObject toJson(Citizen c) {
+            JSONObject obj = new JSONObject();
+            obj.put("id", c.getId());
+            obj.put("name", c.getName());
+            obj.put("email", c.getEmail());
+            obj.put("number", c.getNumber());
+            obj.put("password", c.getPassword());
+            return obj;
+        }
+
+        @Override
+        public Citizen fromJson(JSONObject obj) {
+            return new Citizen(
+                obj.getString("id"),
+                obj.optString("name", ""),
+                obj.optString("number", ""),
+                obj.optString("email", ""),
+                obj.optString("password", "password")
+            );
+        }
+    };
+
+    public static final RowCodec<ServiceRequest> REQUEST = new RowCodec<>() {
+        @Override
+        public JSONObject toJson(ServiceRequest r) {
+            JSONObject obj = new JSONObject();
+            obj.put("id", r.getId());
+            obj.put("citizenId", r.getCitizenId());
+            obj.put("type", r.getServiceType());
+            obj.put("description", r.getDescription());
+            obj.put("status", r.getStatus().name());
+            obj.put("adminNote", r.getAdminNote());
+            obj.put("date", r.getCreatedAt().toString());
+            return obj;
+        }
+
+        @Override
+        public ServiceRequest fromJson(JSONObject obj) {
+            return new ServiceRequest(
+                obj.getString("id"),
+                obj.optString("citizenId", ""),
+                obj.optString("type", ""),
+                obj.optString("description", ""),
+                ServiceRequest.Status.valueOf(obj.optString("status", "REQUESTED")),
+                obj.optString("adminNote", ""),
+                parseTime(obj.optString("date", null))
+            );
+        }
+    };
+
+    public static final RowCodec<Document> DOCUMENT = new RowCodec<>() {
+        @Override
+        public JSONObject toJson(Document d) {
+            JSONObject obj = new JSONObject();
+            obj.put("id", d.getId());
+            obj.put("requestId", d.getAttachedRequestId());
+            obj.put("citizenId", d.getCitizenId());
+            obj.put("filePath", d.getFilePath());
+            obj.put("status", d.getStatus().name());
+            obj.put("reviewComment", d.getReviewComment());
+            obj.put("uploadTime", d.getUploadTime().toString());
+            if (d.getReviewTime() != null) {
+                obj.put("reviewTime", d.getReviewTime().toString());
+            }
+            return obj;
+        }
+
+        @Override
+        public Document fromJson(JSONObject obj) {
+            String reviewTime = obj.optString("reviewTime", null);
+            return new Document(
+                obj.getString("id"),
+                // Older files stored the request link as "attachedRequestId"
+                obj.optString("requestId", obj.optString("attachedRequestId", "")),
+                obj.optString("filePath", ""),
+                obj.optString("citizenId", ""),
+                Document.Status.valueOf(obj.optString("status", "PENDING")),
+                obj.optString("reviewComment", ""),
+                parseTime(obj.optString("uploadTime", null)),
+                reviewTime != null ? LocalDateTime.parse(reviewTime) : null
+            );
+        }
+    };
+
+    public static final RowCodec<Archive> ARCHIVE = new RowCodec<>() {
+        @Override
+        public JSONObject toJson(Archive a) {
+            JSONObject obj = new JSONObject();
+            obj.put("archiveId", a.getArchiveId());
+            obj.put("entityId", a.getEntityId());
+            obj.put("type", a.getType().name());
+            obj.put("details", a.getDetails());
+            obj.put("archivedAt", a.getArchivedAt().toString());
+            obj.put("archivedBy", a.getArchivedBy());
+            obj.put("reason", a.getReason());
+            return obj;
+        }
+
+        @Override
+        public Archive fromJson(JSONObject obj) {
+            return new Archive(
+                obj.getString("archiveId"),
+                obj.optString("entityId", ""),
+                Archive.ArchiveType.valueOf(obj.getString("type")),
+                obj.optString("details", ""),
+                parseTime(obj.optString("archivedAt", null)),
+                obj.optString("archivedBy", ""),
+                obj.optString("reason", "")
+            );
+        }
+    };
+
+    public static final RowCodec<IdGenerator.HighWaterMark> HIGH_WATER_MARK = new RowCodec<>() {
+        @Override
+        public JSONObject toJson(IdGenerator.HighWaterMark m) {
+            JSONObject obj = new JSONObject();
+            obj.put("key", m.getKey());
+            obj.put("limit", m.getLimit());
+            return obj;
+        }
+
+        @Override
+        public IdGenerator.HighWaterMark fromJson(JSONObject obj) {
+            return new IdGenerator.HighWaterMark(obj.getString("key"), obj.getLong("limit"));
+        }
+    };
+
+    // Rows written by older versions may lack a timestamp
+    private static LocalDateTime parseTime(String text) {
+        return text == null || text.isEmpty() ? LocalDateTime.now() : LocalDateTime.parse(text);
+    }
+}
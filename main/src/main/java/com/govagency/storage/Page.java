@@ -0,0 +1,74 @@
+package com.govagency.storage;
+
+import java.util.List;
+
+/**
+ * One page of rows in a table's sort order, with the table's total row
+ * count and the requests for the neighbouring pages.
+ */
+public final class Page<T> {
+
+    private final List<T> rows;
+    private final String order;
+    private final int offset;
+    private final int limit;
+    private final int total;
+    private final Cursor first;
+    private final Cursor last;
+    private final boolean hasPrevious;
+    private final boolean hasNext;
+
+    Page(List<T> rows, String order, int offset, int limit, int total,
+         Cursor first, Cursor last, boolean hasPrevious, boolean hasNext) {
+        this.rows = List.copyOf(rows);
+        this.order = order;
+        this.offset = offset;
+        this.limit = limit;
+        this.total = total;
+        this.first = first;
+        this.last = last;
+        this.hasPrevious = hasPrevious;
+        this.hasNext = hasNext;
+    }
+
+    public List<T> getRows() {
+        return rows;
+    }
+
+    /**
+     * Position of the first row in the whole order. Exact for offset pages,
+     * approximate for cursor pages if rows were added or removed meanwhile.
+     */
+    public int getOffset() {
+        return offset;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public boolean hasPrevious() {
+        return hasPrevious;
+    }
+
+    public boolean hasNext() {
+        return hasNext;
+    }
+
+    /**
+     * @return the request for the following page, or null on the last page
+     */
+    public PageRequest next() {
+        if (!hasNext) return null;
+        return PageRequest.after(order, last, offset + rows.size(), limit);
+    }
+
+    /**
+     * @return the request for the preceding page, or null on the first page
+     */
+    public PageRequest previous() {
+        if (!hasPrevious) return null;
+        if (first == null) return PageRequest.first(order, limit);
+        return PageRequest.before(order, first, Math.max(0, offset - limit), limit);
+    }
+}
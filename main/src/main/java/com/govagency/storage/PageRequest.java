@@ -0,0 +1,79 @@
+package com.govagency.storage;
+
+/**
+ * Which page of a table to fetch: a sort order plus either an offset or a
+ * keyset cursor. Offset pages cost O(offset) to reach; cursor pages cost
+ * O(log n) regardless of how deep they are, so paging forwards and
+ * backwards through a {@link Page} uses cursors.
+ */
+public final class PageRequest {
+
+    /** Order by primary id. Every table has it. */
+    public static final String BY_ID = "id";
+    /** Order by creation time, for tables that record one. */
+    public static final String BY_TIME = "time";
+
+    private final String order;
+    private final int limit;
+    private final int offset;
+    private final Cursor after;
+    private final Cursor before;
+
+    private PageRequest(String order, int limit, int offset, Cursor after, Cursor before) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit must be at least 1");
+        }
+        if (offset < 0) {
+            throw new IllegalArgumentException("offset must not be negative");
+        }
+        this.order = order;
+        this.limit = limit;
+        this.offset = offset;
+        this.after = after;
+        this.before = before;
+    }
+
+    public static PageRequest first(String order, int limit) {
+        return new PageRequest(order, limit, 0, null, null);
+    }
+
+    public static PageRequest at(String order, int offset, int limit) {
+        return new PageRequest(order, limit, offset, null, null);
+    }
+
+    /**
+     * The page following {@code cursor}. {@code offset} is only used to
+     * report the page's position and may be approximate.
+     */
+    public static PageRequest after(String order, Cursor cursor, int offset, int limit) {
+        return new PageRequest(order, limit, offset, cursor, null);
+    }
+
+    /**
+     * The page preceding {@code cursor}. {@code offset} is only used to
+     * report the page's position and may be approximate.
+     */
+    public static PageRequest before(String order, Cursor cursor, int offset, int limit) {
+        return new PageRequest(order, limit, offset, null, cursor);
+    }
+
+    public String getOrder() {
+        return order;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getOffset() {
+        return offset;
+    }
+
+    public Cursor getAfter() {
+        return after;
+    }
+
+    public Cursor getBefore() {
+        return before;
+    }
+}
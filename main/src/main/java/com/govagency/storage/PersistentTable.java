@@ -0,0 +1,142 @@
+package com.govagency.storage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+import org.json.JSONObject;
+
+/**
+ * A {@link Table} of model objects that is saved as a named JSON collection
+ * in its own file. Rows are only converted to JSON when they are written out.
+ *
+ * The table is marked dirty by every change, so a checkpoint only rewrites
+ * the collections that actually changed since they were last saved.
+ */
+public class PersistentTable<T> extends Table<T> {
+
+    private static final Pattern VALID_NAME = Pattern.compile("[A-Za-z0-9_-]+");
+
+    private final String name;
+    private final RowCodec<T> codec;
+    private boolean dirty;
+
+    /**
+     * @param name collection name, also used as the file name; letters,
+     *             digits, '_' and '-' only
+     */
+    public PersistentTable(String name, RowCodec<T> codec, Function<T, String> primaryKey) {
+        super(primaryKey);
+        if (name == null || !VALID_NAME.matcher(name).matches()) {
+            throw new IllegalArgumentException("Invalid collection name: " + name);
+        }
+        this.name = name;
+        this.codec = codec;
+    }
+
+    @Override
+    public PersistentTable<T> addIndex(String indexName, Function<T, String> key) {
+        super.addIndex(indexName, key);
+        return this;
+    }
+
+    @Override
+    public PersistentTable<T> addOrder(String orderName, Function<T, ? extends Comparable<?>> key) {
+        super.addOrder(orderName, key);
+        return this;
+    }
+
+    @Override
+    public PersistentTable<T> addTextIndex(String indexName, List<Function<T, String>> fields) {
+        super.addTextIndex(indexName, fields);
+        return this;
+    }
+
+    @Override
+    public PersistentTable<T> addCounter(String counterName, Function<T, String> key) {
+        super.addCounter(counterName, key);
+        return this;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getFileName() {
+        return name + ".json";
+    }
+
+    @Override
+    public T put(T row) {
+        T previous = super.put(row);
+        dirty = true;
+        return previous;
+    }
+
+    @Override
+    public T remove(String id) {
+        T previous = super.remove(id);
+        if (previous != null) {
+            dirty = true;
+        }
+        return previous;
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        dirty = true;
+    }
+
+    public boolean isDirty() {
+        return dirty;
+    }
+
+    public void markDirty() {
+        dirty = true;
+    }
+
+    public void markClean() {
+        dirty = false;
+    }
+
+    public JSONObject toJson(T row) {
+        return codec.toJson(row);
+    }
+
+    /**
+     * Decode a stored row and insert it.
+     *
+     * @throws org.json.JSONException if a required field is missing
+     * @throws IllegalArgumentException if a field has an invalid value
+     */
+    public void putJson(JSONObject json) {
+        put(codec.fromJson(json));
+    }
+
+    /**
+     * Encode the current rows so they can be written out after the caller
+     * releases the database lock. The body has the form {"name": [ rows ]},
+     * one row per line.
+     */
+    public Checkpoint.BodyWriter snapshot() {
+        List<JSONObject> rows = new ArrayList<>(size());
+        for (T row : values()) {
+            rows.add(codec.toJson(row));
+        }
+
+        return out -> {
+            out.write("{");
+            out.write(JSONObject.quote(name));
+            out.write(": [");
+            boolean first = true;
+            for (JSONObject row : rows) {
+                out.write(first ? "\n    " : ",\n    ");
+                first = false;
+                row.write(out);
+            }
+            out.write(first ? "]\n}\n" : "\n]\n}\n");
+        };
+    }
+}
@@ -0,0 +1,17 @@
+package com.govagency.storage;
+
+import org.json.JSONObject;
+
+/**
+ * Converts between a model object and the JSON row it is stored as.
+ */
+public interface RowCodec<T> {
+
+    JSONObject toJson(T row);
+
+    /**
+     * @throws org.json.JSONException if a required field is missing
+     * @throws IllegalArgumentException if a field has an invalid value
+     */
+    T fromJson(JSONObject json);
+}
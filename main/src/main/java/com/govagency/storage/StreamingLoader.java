@@ -0,0 +1,95 @@
+package com.govagency.storage;
+
+import java.io.Reader;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+import org.json.JSONObject;
+import org.json.JSONTokener;
+
+import com.govagency.logging.Logger;
+import com.govagency.logging.Logging;
+
+/**
+ * Reads a database file of the form {"collection": [ {row}, ... ], ...}
+ * token by token. Each row is handed to the sink as soon as it is parsed,
+ * so neither the file text nor the whole document tree is ever held in
+ * memory at once.
+ */
+public final class StreamingLoader {
+
+    private static final Logger LOG = Logging.logger("db");
+
+    private StreamingLoader() {
+    }
+
+    /**
+     * @return the names of the collections found in the file
+     */
+    public static Set<String> load(Reader reader, BiConsumer<String, JSONObject> sink) {
+        JSONTokener tokens = new JSONTokener(reader);
+        Set<String> collections = new LinkedHashSet<>();
+
+        if (tokens.nextClean() != '{') {
+            throw tokens.syntaxError("A database file must begin with '{'");
+        }
+        if (tokens.nextClean() == '}') {
+            return collections;
+        }
+        tokens.back();
+
+        while (true) {
+            Object key = tokens.nextValue();
+            if (!(key instanceof String)) {
+                throw tokens.syntaxError("Expected a collection name");
+            }
+            if (tokens.nextClean() != ':') {
+                throw tokens.syntaxError("Expected ':' after " + key);
+            }
+
+            if (tokens.nextClean() == '[') {
+                collections.add((String) key);
+                readRows((String) key, tokens, sink);
+            } else {
+                // Not a collection; parse and drop it
+                tokens.back();
+                tokens.nextValue();
+            }
+
+            char c = tokens.nextClean();
+            if (c == '}') {
+                return collections;
+            }
+            if (c != ',') {
+                throw tokens.syntaxError("Expected ',' or '}'");
+            }
+        }
+    }
+
+    private static void readRows(String collection, JSONTokener tokens, BiConsumer<String, JSONObject> sink) {
+        if (tokens.nextClean() == ']') {
+            return;
+        }
+        tokens.back();
+
+        int index = 0;
+        while (true) {
+            Object value = tokens.nextValue();
+            if (value instanceof JSONObject row) {
+                sink.accept(collection, row);
+            } else {
+                LOG.warn("Skipping malformed row", "collection", collection, "index", index);
+            }
+            index++;
+
+            char c = tokens.nextClean();
+            if (c == ']') {
+                return;
+            }
+            if (c != ',') {
+                throw tokens.syntaxError("Expected ',' or ']' in " + collection);
+            }
+        }
+    }
+}
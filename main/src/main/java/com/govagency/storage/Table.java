@@ -0,0 +1,382 @@
+package com.govagency.storage;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * In-memory collection of rows keyed by a primary id, with hash indexes on
+ * secondary keys, sorted orders for paging, optional full-text indexes and
+ * running row counts per key.
+ * Rows keep their insertion order; every table can also be paged in primary
+ * id order.
+ *
+ * Each index and order remembers the key it filed a row under, so a row that
+ * was modified in place is still re-indexed correctly when it is put back.
+ * Not thread-safe; callers hold the database lock.
+ */
+public class Table<T> {
+
+    private final Function<T, String> primaryKey;
+    private final Map<String, T> rows = new LinkedHashMap<>();
+    private final Map<String, Index<T>> indexes = new HashMap<>();
+    private final Map<String, Order<T>> orders = new HashMap<>();
+    private final Map<String, TextIndex<T>> textIndexes = new HashMap<>();
+    private final Map<String, Counter<T>> counters = new HashMap<>();
+
+    public Table(Function<T, String> primaryKey) {
+        this.primaryKey = primaryKey;
+        orders.put(PageRequest.BY_ID, new Order<>(primaryKey));
+    }
+
+    /**
+     * Add a secondary index. Rows for which the key function returns null
+     * or an empty string are left out of the index.
+     */
+    public Table<T> addIndex(String name, Function<T, String> key) {
+        Index<T> index = new Index<>(key);
+        for (Map.Entry<String, T> e : rows.entrySet()) {
+            index.add(e.getKey(), e.getValue());
+        }
+        indexes.put(name, index);
+        return this;
+    }
+
+    /**
+     * Add a sort order for paging. Rows are sorted by the key's natural
+     * order, then by primary id; rows with a null key come first.
+     */
+    public Table<T> addOrder(String name, Function<T, ? extends Comparable<?>> key) {
+        Order<T> order = new Order<>(key);
+        for (Map.Entry<String, T> e : rows.entrySet()) {
+            order.add(e.getKey(), e.getValue());
+        }
+        orders.put(name, order);
+        return this;
+    }
+
+    /**
+     * Add a full-text index over the given fields.
+     */
+    public Table<T> addTextIndex(String name, List<Function<T, String>> fields) {
+        TextIndex<T> index = new TextIndex<>(fields);
+        for (Map.Entry<String, T> e : rows.entrySet()) {
+            index.put(e.getKey(), e.getValue());
+        }
+        textIndexes.put(name, index);
+        return this;
+    }
+
+    /**
+     * Add a running count of rows per key, e.g. per status. It is updated
+     * in constant time on every put and remove, so reading it never scans
+     * the rows. Rows with a null or empty key are not counted.
+     */
+    public Table<T> addCounter(String name, Function<T, String> key) {
+        Counter<T> counter = new Counter<>(key);
+        for (Map.Entry<String, T> e : rows.entrySet()) {
+            counter.add(e.getKey(), e.getValue());
+        }
+        counters.put(name, counter);
+        return this;
+    }
+
+    /**
+     * Number of rows per key of a counter, in key order.
+     */
+    public SortedMap<String, Integer> counts(String counterName) {
+        Counter<T> counter = counters.get(counterName);
+        if (counter == null) {
+            throw new IllegalArgumentException("No such counter: " + counterName);
+        }
+        SortedMap<String, Integer> counts = new TreeMap<>();
+        for (Map.Entry<String, int[]> e : counter.countByKey.entrySet()) {
+            counts.put(e.getKey(), e.getValue()[0]);
+        }
+        return counts;
+    }
+
+    /**
+     * Rows matching a free-text query, best match first. See {@link TextIndex}.
+     */
+    public List<T> search(String indexName, String query, int limit) {
+        TextIndex<T> index = textIndexes.get(indexName);
+        if (index == null) {
+            throw new IllegalArgumentException("No such text index: " + indexName);
+        }
+
+        List<T> matches = new ArrayList<>();
+        for (String id : index.search(query, limit)) {
+            matches.add(rows.get(id));
+        }
+        return matches;
+    }
+
+    /**
+     * One page of rows in the requested order. Offset pages skip rows one by
+     * one; cursor pages seek straight to the cursor. A "before" page that
+     * would run past the start returns the first full page instead.
+     */
+    public Page<T> page(PageRequest request) {
+        NavigableMap<Cursor, T> sorted = order(request.getOrder()).rows;
+        int limit = request.getLimit();
+        int offset = request.getOffset();
+        List<Map.Entry<Cursor, T>> entries = new ArrayList<>(Math.min(limit, sorted.size()));
+
+        if (request.getAfter() != null) {
+            for (Map.Entry<Cursor, T> e : sorted.tailMap(request.getAfter(), false).entrySet()) {
+                if (entries.size() == limit) break;
+                entries.add(e);
+            }
+        } else if (request.getBefore() != null) {
+            for (Map.Entry<Cursor, T> e : sorted.headMap(request.getBefore(), false).descendingMap().entrySet()) {
+                if (entries.size() == limit) break;
+                entries.add(e);
+            }
+            if (entries.size() < limit) {
+                return page(PageRequest.first(request.getOrder(), limit));
+            }
+            Collections.reverse(entries);
+        } else {
+            int skipped = 0;
+            for (Map.Entry<Cursor, T> e : sorted.entrySet()) {
+                if (entries.size() == limit) break;
+                if (skipped++ < offset) continue;
+                entries.add(e);
+            }
+        }
+
+        List<T> pageRows = new ArrayList<>(entries.size());
+        for (Map.Entry<Cursor, T> e : entries) {
+            pageRows.add(e.getValue());
+        }
+
+        if (entries.isEmpty()) {
+            boolean pastStart = offset > 0 || request.getAfter() != null;
+            return new Page<>(pageRows, request.getOrder(), offset, limit, sorted.size(),
+                              null, null, pastStart && !sorted.isEmpty(), false);
+        }
+
+        Cursor first = entries.get(0).getKey();
+        Cursor last = entries.get(entries.size() - 1).getKey();
+        return new Page<>(pageRows, request.getOrder(), offset, limit, sorted.size(), first, last,
+                          sorted.lowerKey(first) != null, sorted.higherKey(last) != null);
+    }
+
+    /**
+     * Up to {@code limit} rows whose key in a string order starts with
+     * {@code prefix}, in that order. Seeks straight to the prefix, so the
+     * cost depends on the rows returned, not on the size of the table.
+     */
+    public List<T> prefix(String orderName, String prefix, int limit) {
+        List<T> matches = new ArrayList<>();
+        for (Map.Entry<Cursor, T> e : order(orderName).rows.tailMap(new Cursor(prefix, ""), true).entrySet()) {
+            if (matches.size() == limit
+                    || !(e.getKey().getValue() instanceof String key) || !key.startsWith(prefix)) break;
+            matches.add(e.getValue());
+        }
+        return matches;
+    }
+
+    public T get(String id) {
+        return rows.get(id);
+    }
+
+    public boolean contains(String id) {
+        return rows.containsKey(id);
+    }
+
+    /**
+     * Rows whose indexed key equals {@code key}, in insertion order.
+     */
+    public List<T> lookup(String indexName, String key) {
+        Map<String, T> matches = index(indexName).rowsByKey.get(key);
+        return matches == null ? new ArrayList<>() : new ArrayList<>(matches.values());
+    }
+
+    /**
+     * First row whose indexed key equals {@code key}, or null.
+     */
+    public T lookupFirst(String indexName, String key) {
+        Map<String, T> matches = index(indexName).rowsByKey.get(key);
+        return matches == null || matches.isEmpty() ? null : matches.values().iterator().next();
+    }
+
+    /**
+     * Insert a row, or replace the row with the same primary key.
+     *
+     * @return the previous row, or null
+     */
+    public T put(T row) {
+        String id = primaryKey.apply(row);
+        T previous = rows.put(id, row);
+        for (Index<T> index : indexes.values()) {
+            index.remove(id);
+            index.add(id, row);
+        }
+        for (Order<T> order : orders.values()) {
+            order.remove(id);
+            order.add(id, row);
+        }
+        for (TextIndex<T> index : textIndexes.values()) {
+            index.put(id, row);
+        }
+        for (Counter<T> counter : counters.values()) {
+            counter.remove(id);
+            counter.add(id, row);
+        }
+        return previous;
+    }
+
+    public T remove(String id) {
+        T previous = rows.remove(id);
+        if (previous != null) {
+            for (Index<T> index : indexes.values()) {
+                index.remove(id);
+            }
+            for (Order<T> order : orders.values()) {
+                order.remove(id);
+            }
+            for (TextIndex<T> index : textIndexes.values()) {
+                index.remove(id);
+            }
+            for (Counter<T> counter : counters.values()) {
+                counter.remove(id);
+            }
+        }
+        return previous;
+    }
+
+    public Collection<T> values() {
+        return Collections.unmodifiableCollection(rows.values());
+    }
+
+    public int size() {
+        return rows.size();
+    }
+
+    public void clear() {
+        rows.clear();
+        for (Index<T> index : indexes.values()) {
+            index.rowsByKey.clear();
+            index.keyById.clear();
+        }
+        for (Order<T> order : orders.values()) {
+            order.rows.clear();
+            order.cursorById.clear();
+        }
+        for (TextIndex<T> index : textIndexes.values()) {
+            index.clear();
+        }
+        for (Counter<T> counter : counters.values()) {
+            counter.countByKey.clear();
+            counter.keyById.clear();
+        }
+    }
+
+    private Index<T> index(String name) {
+        Index<T> index = indexes.get(name);
+        if (index == null) {
+            throw new IllegalArgumentException("No such index: " + name);
+        }
+        return index;
+    }
+
+    private Order<T> order(String name) {
+        Order<T> order = orders.get(name);
+        if (order == null) {
+            throw new IllegalArgumentException("No such order: " + name);
+        }
+        return order;
+    }
+
+    private static class Order<T> {
+        private final Function<T, ? extends Comparable<?>> key;
+        private final NavigableMap<Cursor, T> rows = new TreeMap<>();
+        private final Map<String, Cursor> cursorById = new HashMap<>();
+
+        Order(Function<T, ? extends Comparable<?>> key) {
+            this.key = key;
+        }
+
+        void add(String id, T row) {
+            Cursor cursor = new Cursor(key.apply(row), id);
+            rows.put(cursor, row);
+            cursorById.put(id, cursor);
+        }
+
+        void remove(String id) {
+            Cursor cursor = cursorById.remove(id);
+            if (cursor != null) {
+                rows.remove(cursor);
+            }
+        }
+    }
+
+    private static class Index<T> {
+        private final Function<T, String> key;
+        private final Map<String, Map<String, T>> rowsByKey = new HashMap<>();
+        private final Map<String, String> keyById = new HashMap<>();
+
+        Index(Function<T, String> key) {
+            this.key = key;
+        }
+
+        void add(String id, T row) {
+            String k = key.apply(row);
+            if (k == null || k.isEmpty()) return;
+
+            rowsByKey.computeIfAbsent(k, x -> new LinkedHashMap<>()).put(id, row);
+            keyById.put(id, k);
+        }
+
+        void remove(String id) {
+            String k = keyById.remove(id);
+            if (k == null) return;
+
+            Map<String, T> matches = rowsByKey.get(k);
+            if (matches != null) {
+                matches.remove(id);
+                if (matches.isEmpty()) {
+                    rowsByKey.remove(k);
+                }
+            }
+        }
+    }
+
+    private static class Counter<T> {
+        private final Function<T, String> key;
+        private final Map<String, int[]> countByKey = new HashMap<>();
+        private final Map<String, String> keyById = new HashMap<>();
+
+        Counter(Function<T, String> key) {
+            this.key = key;
+        }
+
+        void add(String id, T row) {
+            String k = key.apply(row);
+            if (k == null || k.isEmpty()) return;
+
+            countByKey.computeIfAbsent(k, x -> new int[1])[0]++;
+            keyById.put(id, k);
+        }
+
+        void remove(String id) {
+            String k = keyById.remove(id);
+            if (k == null) return;
+
+            int[] count = countByKey.get(k);
+            if (count != null && --count[0] == 0) {
+                countByKey.remove(k);
+            }
+        }
+    }
+}
@@ -0,0 +1,408 @@
+package com.govagency.storage;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * Inverted index for free-text search over a few string fields of a row.
+ *
+ * Field values are lowercased and split into words at anything that is not
+ * a letter or digit. Words are kept in a sorted map for prefix lookups and
+ * filed under their trigrams, so a substring lookup only checks the words
+ * that share the query's rarest trigram. A value that splits into several
+ * words is also indexed with its separators removed, for prefix lookups
+ * only, so "0917-123-4567" is found by "0917123".
+ *
+ * A query matches a row when every query word matches one of the row's
+ * words. Matches rank exact over prefix over substring, summed over the
+ * query words; equally good matches come in no particular order.
+ * Not thread-safe; the owning {@link Table} is guarded by the database lock.
+ */
+public class TextIndex<T> {
+
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int GRAM = 3;
+
+    private static final int EXACT = 3;
+    private static final int PREFIX = 2;
+    private static final int SUBSTRING = 1;
+
+    // Prefix ranges longer than this are not worth counting when picking where to start
+    private static final int ESTIMATE_CAP = 1024;
+
+    /**
+     * Rows containing one token. Most tokens (ids, phone numbers) belong to
+     * a single row, so that case is stored without a set. Common tokens
+     * ("com", "gmail", surnames) can belong to nearly every row, and every
+     * update that changes such a field removes the row from them again, so
+     * they are kept in a set that adds and removes in constant time.
+     */
+    private static class Posting {
+        final String token;
+        // Rows holding the token as a word, not only compacted; its trigrams are filed while any do
+        int wordRows;
+        String single;
+        Set<String> many;
+
+        Posting(String token) {
+            this.token = token;
+        }
+
+        void add(String id) {
+            if (many != null) {
+                many.add(id);
+            } else if (single == null || single.equals(id)) {
+                single = id;
+            } else {
+                many = new LinkedHashSet<>(4);
+                many.add(single);
+                many.add(id);
+                single = null;
+            }
+        }
+
+        // Returns true once no row contains the token
+        boolean remove(String id) {
+            if (many != null) {
+                many.remove(id);
+                return many.isEmpty();
+            }
+            if (id.equals(single)) {
+                single = null;
+            }
+            return single == null;
+        }
+
+        Iterable<String> ids() {
+            if (many != null) return many;
+            return single == null ? List.of() : List.of(single);
+        }
+
+        int size() {
+            if (many != null) return many.size();
+            return single == null ? 0 : 1;
+        }
+    }
+
+    // Tokens a row was filed under, shared with the postings: its words first, then compacted forms
+    private static final class RowTokens {
+        final String[] tokens;
+        final int words;
+
+        RowTokens(String[] tokens, int words) {
+            this.tokens = tokens;
+            this.words = words;
+        }
+    }
+
+    private static class Hit {
+        final String id;
+        final int score;
+
+        Hit(String id, int score) {
+            this.id = id;
+            this.score = score;
+        }
+    }
+
+    private final List<Function<T, String>> fields;
+    private final NavigableMap<String, Posting> postings = new TreeMap<>();
+    private final Map<String, Set<String>> wordsByGram = new HashMap<>();
+    private final Map<String, RowTokens> tokensById = new HashMap<>();
+
+    public TextIndex(List<Function<T, String>> fields) {
+        this.fields = List.copyOf(fields);
+    }
+
+    /**
+     * Index a row, or re-index it after a change. Only tokens that were
+     * added or dropped since the row was last indexed, or that changed
+     * between word and compacted form, are touched.
+     */
+    public void put(String id, T row) {
+        Set<String> words = new LinkedHashSet<>();
+        Set<String> compacted = new LinkedHashSet<>();
+        for (Function<T, String> field : fields) {
+            tokenize(field.apply(row), words, compacted);
+        }
+        compacted.removeAll(words);
+
+        RowTokens old = tokensById.get(id);
+        Set<String> kept = new HashSet<>();
+        if (old != null) {
+            for (int i = 0; i < old.tokens.length; i++) {
+                String token = old.tokens[i];
+                boolean wasWord = i < old.words;
+                boolean isWord = words.contains(token);
+                if (!isWord && !compacted.contains(token)) {
+                    unlink(token, id, wasWord);
+                    continue;
+                }
+                kept.add(token);
+                if (isWord && !wasWord) {
+                    addWordRow(postings.get(token));
+                } else if (wasWord && !isWord) {
+                    removeWordRow(postings.get(token));
+                }
+            }
+        }
+
+        List<String> tokens = new ArrayList<>(words.size() + compacted.size());
+        for (String token : words) {
+            tokens.add(kept.contains(token) ? postings.get(token).token : link(token, id, true));
+        }
+        for (String token : compacted) {
+            tokens.add(kept.contains(token) ? postings.get(token).token : link(token, id, false));
+        }
+
+        if (tokens.isEmpty()) {
+            tokensById.remove(id);
+        } else {
+            tokensById.put(id, new RowTokens(tokens.toArray(new String[0]), words.size()));
+        }
+    }
+
+    public void remove(String id) {
+        RowTokens row = tokensById.remove(id);
+        if (row == null) return;
+
+        for (int i = 0; i < row.tokens.length; i++) {
+            unlink(row.tokens[i], id, i < row.words);
+        }
+    }
+
+    public void clear() {
+        postings.clear();
+        wordsByGram.clear();
+        tokensById.clear();
+    }
+
+    // Returns the shared instance of the token
+    private String link(String token, String id, boolean word) {
+        Posting posting = postings.get(token);
+        if (posting == null) {
+            posting = new Posting(token);
+            postings.put(token, posting);
+        }
+        posting.add(id);
+        if (word) {
+            addWordRow(posting);
+        }
+        return posting.token;
+    }
+
+    private void unlink(String token, String id, boolean word) {
+        Posting posting = postings.get(token);
+        if (posting == null) return;
+
+        if (word) {
+            removeWordRow(posting);
+        }
+        if (posting.remove(id)) {
+            postings.remove(token);
+        }
+    }
+
+    // A token first seen compacted may turn up as a word later, of the same row or another
+    private void addWordRow(Posting posting) {
+        if (posting.wordRows++ > 0) return;
+        for (String gram : grams(posting.token)) {
+            wordsByGram.computeIfAbsent(gram, g -> new HashSet<>(4)).add(posting.token);
+        }
+    }
+
+    // Once no row holds the token as a word, substring lookups stop finding it
+    private void removeWordRow(Posting posting) {
+        if (--posting.wordRows > 0) return;
+        for (String gram : grams(posting.token)) {
+            Set<String> words = wordsByGram.get(gram);
+            if (words != null) {
+                words.remove(posting.token);
+                if (words.isEmpty()) {
+                    wordsByGram.remove(gram);
+                }
+            }
+        }
+    }
+
+    /**
+     * Ids of the best {@code limit} rows matching every word of
+     * {@code query}, best first. Query words shorter than three characters
+     * only match as prefixes.
+     *
+     * The candidates come from the query word with the fewest matches, in
+     * exact, prefix, substring order; the other words are checked against
+     * each candidate's own tokens. The scan stops as soon as no remaining
+     * candidate can outrank the results already found.
+     */
+    public List<String> search(String query, int limit) {
+        Set<String> queryWords = new LinkedHashSet<>();
+        tokenize(query, queryWords, null);
+        if (queryWords.isEmpty() || limit < 1) return new ArrayList<>();
+
+        String driver = null;
+        long fewest = Long.MAX_VALUE;
+        for (String q : queryWords) {
+            long estimate = estimate(q);
+            if (estimate < fewest) {
+                fewest = estimate;
+                driver = q;
+            }
+        }
+        List<String> others = new ArrayList<>(queryWords);
+        others.remove(driver);
+
+        PriorityQueue<Hit> best = new PriorityQueue<>(limit + 1, Comparator.comparingInt(h -> h.score));
+        Set<String> seen = new HashSet<>();
+        int othersMax = EXACT * others.size();
+
+        scan:
+        for (int tier = EXACT; tier >= SUBSTRING; tier--) {
+            if (best.size() == limit && best.peek().score >= tier + othersMax) break;
+
+            for (Posting posting : tierPostings(driver, tier)) {
+                for (String id : posting.ids()) {
+                    if (!seen.add(id)) continue;
+
+                    int score = tier + scoreOthers(tokensById.get(id).tokens, others);
+                    if (score < tier) continue;
+
+                    if (best.size() < limit) {
+                        best.add(new Hit(id, score));
+                    } else if (score > best.peek().score) {
+                        best.poll();
+                        best.add(new Hit(id, score));
+                    }
+                    if (best.size() == limit && best.peek().score >= tier + othersMax) break scan;
+                }
+            }
+        }
+
+        List<Hit> hits = new ArrayList<>(best);
+        hits.sort(Comparator.comparingInt((Hit h) -> h.score).reversed());
+        List<String> ids = new ArrayList<>(hits.size());
+        for (Hit hit : hits) {
+            ids.add(hit.id);
+        }
+        return ids;
+    }
+
+    // Rows matching q exactly or as a prefix, counted up to a cap
+    private long estimate(String q) {
+        long count = 0;
+        int tokens = 0;
+        for (Posting posting : prefixRange(q, true).values()) {
+            count += posting.size();
+            if (++tokens == ESTIMATE_CAP) return Long.MAX_VALUE / 2 + count;
+        }
+        return count;
+    }
+
+    // Postings of the tokens matching q at the given tier
+    private Iterable<Posting> tierPostings(String q, int tier) {
+        switch (tier) {
+            case EXACT: {
+                Posting posting = postings.get(q);
+                return posting == null ? List.of() : List.of(posting);
+            }
+            case PREFIX:
+                return prefixRange(q, false).values();
+            default: {
+                if (q.length() < GRAM) return List.of();
+
+                List<Posting> matches = new ArrayList<>();
+                for (String word : rarestGram(q)) {
+                    if (word.contains(q) && !word.startsWith(q)) {
+                        matches.add(postings.get(word));
+                    }
+                }
+                return matches;
+            }
+        }
+    }
+
+    private NavigableMap<String, Posting> prefixRange(String q, boolean inclusive) {
+        return postings.subMap(q, inclusive, q + Character.MAX_VALUE, false);
+    }
+
+    // Words filed under the least common trigram of q; every word containing q is among them
+    private Set<String> rarestGram(String q) {
+        Set<String> rarest = null;
+        for (String gram : grams(q)) {
+            Set<String> words = wordsByGram.get(gram);
+            if (words == null) return Collections.emptySet();
+            if (rarest == null || words.size() < rarest.size()) {
+                rarest = words;
+            }
+        }
+        return rarest;
+    }
+
+    // Sum of the best tier each query word reaches in the row, or -1 if one does not match
+    private static int scoreOthers(String[] rowTokens, List<String> others) {
+        int total = 0;
+        for (String q : others) {
+            int best = 0;
+            for (String token : rowTokens) {
+                if (token.equals(q)) {
+                    best = EXACT;
+                    break;
+                }
+                if (token.startsWith(q)) {
+                    best = PREFIX;
+                } else if (best == 0 && q.length() >= GRAM && token.contains(q)) {
+                    best = SUBSTRING;
+                }
+            }
+            if (best == 0) return -1;
+            total += best;
+        }
+        return total;
+    }
+
+    // Distinct trigrams of a word; words are short, so a list beats a set here
+    private static List<String> grams(String word) {
+        List<String> grams = new ArrayList<>(Math.max(0, word.length() - GRAM + 1));
+        for (int i = 0; i + GRAM <= word.length(); i++) {
+            String gram = word.substring(i, i + GRAM);
+            if (!grams.contains(gram)) {
+                grams.add(gram);
+            }
+        }
+        return grams;
+    }
+
+    /**
+     * Split a value into words. If {@code compacted} is given, a value with
+     * several words also contributes them joined without separators.
+     */
+    private static void tokenize(String value, Set<String> words, Set<String> compacted) {
+        if (value == null || value.isBlank()) return;
+
+        String lower = value.toLowerCase(Locale.ROOT);
+        StringBuilder joined = new StringBuilder(lower.length());
+        int parts = 0;
+        for (String word : SEPARATORS.split(lower)) {
+            if (word.isEmpty()) continue;
+            words.add(word);
+            joined.append(word);
+            parts++;
+        }
+        if (compacted != null && parts > 1) {
+            compacted.add(joined.toString());
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.govagency.storage;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import com.govagency.logging.Logger;
+import com.govagency.logging.Logging;
+
+/**
+ * Append-only log of database mutations.
+ *
+ * Every record is a single JSON object on its own line. A record is either a
+ * "put" (insert or replace a row by key) or a "delete" (remove a row by key),
+ * so replaying the same record twice leaves the data unchanged.
+ */
+public class WriteAheadLog implements Closeable {
+
+    public static final String OP_PUT = "put";
+    public static final String OP_DELETE = "delete";
+
+    private static final Logger LOG = Logging.logger("db.wal");
+
+    private final Path path;
+    private final FileChannel channel;
+    private int recordCount;
+
+    public WriteAheadLog(Path path) throws IOException {
+        this.path = path;
+        this.channel = FileChannel.open(path,
+            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.channel.position(channel.size());
+    }
+
+    public static JSONObject put(String collection, JSONObject row) {
+        JSONObject record = new JSONObject();
+        record.put("op", OP_PUT);
+        record.put("collection", collection);
+        record.put("row", row);
+        return record;
+    }
+
+    public static JSONObject delete(String collection, String id) {
+        JSONObject record = new JSONObject();
+        record.put("op", OP_DELETE);
+        record.put("collection", collection);
+        record.put("id", id);
+        return record;
+    }
+
+    /**
+     * Feed every complete record to the consumer, in write order. A torn
+     * record at the tail (crash mid-append) is cut off so later appends
+     * start on a clean line.
+     */
+    public int replay(Consumer<JSONObject> consumer) throws IOException {
+        int applied = 0;
+        long validBytes = 0;
+        long offset = 0;
+
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(path))) {
+            ByteArrayOutputStream line = new ByteArrayOutputStream(256);
+            int b;
+            while ((b = in.read()) != -1) {
+                offset++;
+                if (b != '\n') {
+                    line.write(b);
+                    continue;
+                }
+
+                String text = line.toString(StandardCharsets.UTF_8);
+                line.reset();
+                if (text.isBlank()) {
+                    validBytes = offset;
+                    continue;
+                }
+
+                JSONObject record;
+                try {
+                    record = new JSONObject(text);
+                } catch (JSONException e) {
+                    LOG.warn("Stopping WAL replay at corrupt record", "record", applied + 1, e);
+                    break;
+                }
+                consumer.accept(record);
+                applied++;
+                validBytes = offset;
+            }
+        }
+
+        if (validBytes < channel.size()) {
+            LOG.warn("Truncating trailing WAL bytes", "bytes", channel.size() - validBytes);
+            channel.truncate(validBytes);
+            channel.force(true);
+        }
+        channel.position(validBytes);
+        recordCount = applied;
+        return applied;
+    }
+
+    public void append(JSONObject record) throws IOException {
+        appendAll(List.of(record));
+    }
+
+    /**
+     * Append several records with a single write and fsync.
+     *
+     * @return the number of bytes appended
+     */
+    public long appendAll(List<JSONObject> records) throws IOException {
+        StringBuilder sb = new StringBuilder(records.size() * 256);
+        for (JSONObject record : records) {
+            sb.append(record.toString()).append('\n');
+        }
+
+        ByteBuffer buf = ByteBuffer.wrap(sb.toString().getBytes(StandardCharsets.UTF_8));
+        long bytes = buf.remaining();
+        while (buf.hasRemaining()) {
+            channel.write(buf);
+        }
+        channel.force(false);
+        recordCount += records.size();
+        return bytes;
+    }
+
+    /**
+     * Drop all records. Only call once a checkpoint containing them is on disk.
+     */
+    public void reset() throws IOException {
+        channel.truncate(0);
+        channel.position(0);
+        channel.force(true);
+        recordCount = 0;
+    }
+
+    public int getRecordCount() {
+        return recordCount;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
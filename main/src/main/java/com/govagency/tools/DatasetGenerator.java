@@ -0,0 +1,285 @@
+package com.govagency.tools;
+
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.Random;
+
+import com.govagency.LocalDatabase;
+import com.govagency.model.Citizen;
+import com.govagency.model.Document;
+import com.govagency.model.ServiceRequest;
+import com.govagency.util.Validator;
+
+/**
+ * Fills a database with realistic volumes of synthetic records, without the
+ * UI, for capacity testing with {@link LoadDriver}.
+ *
+ * Citizens get Filipino names, unique emails and unique PH mobile numbers
+ * that pass {@link Validator}; every citizen's password is their mobile
+ * number, which the login screen accepts either way. Requests go to
+ * citizens picked at random, documents to requests picked at random, and a
+ * share of the citizens is archived the way the admin "Delete" action does
+ * it. Records are spread over the given number of days up to now.
+ *
+ * <pre>
+ * java -cp main-1.jar com.govagency.tools.DatasetGenerator --dir loadtest \
+ *     --citizens 100000 --requests-per-citizen 3 --documents-per-request 1.5 \
+ *     --archived 0.05 --days 365 --seed 42
+ * </pre>
+ *
+ * The directory must not hold a database yet; ids come from the database's
+ * own sequences, so a generated database can be opened by the application.
+ */
+public class DatasetGenerator {
+
+    static final String[] SERVICE_TYPES = {
+        "License Renewal", "Document Request", "Certificate Issuance", "Permit Application", "Other"
+    };
+    private static final String[] FIRST_NAMES = {
+        "Maria", "Jose", "Juan", "Ana", "Mark", "Grace", "Paolo", "Liza", "Ramon", "Carmen",
+        "Angelo", "Kristine", "Rodel", "Joy", "Miguel", "Andrea", "Carlo", "Rowena", "Jerome", "Divina"
+    };
+    private static final String[] LAST_NAMES = {
+        "Santos", "Reyes", "Cruz", "Bautista", "Garcia", "Mendoza", "Torres", "Flores", "Ramos", "Aquino",
+        "Villanueva", "Castillo", "Dela Cruz", "De Leon", "Navarro", "Pascual", "Salazar", "Domingo"
+    };
+    private static final String[] EMAIL_DOMAINS = {
+        "gmail.com", "yahoo.com", "outlook.com", "gov.ph", "up.edu.ph"
+    };
+    private static final String[] DESCRIPTIONS = {
+        "Requesting renewal before expiry", "Needed for employment requirements",
+        "Lost the original copy", "Correction of personal details", "Needed for travel abroad"
+    };
+    private static final String[] REJECTION_NOTES = {
+        "Incomplete requirements", "Blurry scan, please upload again", "Details do not match records"
+    };
+
+    // Weights in enum order
+    private static final int[] REQUEST_STATUS_WEIGHTS = {30, 25, 35, 10};
+    private static final int[] DOCUMENT_STATUS_WEIGHTS = {40, 50, 10};
+
+    // Odd and not a multiple of 5, so i -> i * MIX mod 10^9 never repeats
+    private static final long NUMBER_MIX = 613_651_369L;
+    private static final long NUMBER_SPACE = 1_000_000_000L;
+
+    private final int citizens;
+    private final double requestsPerCitizen;
+    private final double documentsPerRequest;
+    private final double archivedShare;
+    private final int days;
+    private final long seed;
+
+    public DatasetGenerator(int citizens, double requestsPerCitizen, double documentsPerRequest,
+                            double archivedShare, int days, long seed) {
+        if (citizens < 1 || citizens > NUMBER_SPACE) {
+            throw new IllegalArgumentException("citizens must be between 1 and " + NUMBER_SPACE);
+        }
+        if (requestsPerCitizen < 0 || documentsPerRequest < 0) {
+            throw new IllegalArgumentException("ratios must not be negative");
+        }
+        if (archivedShare < 0 || archivedShare > 1) {
+            throw new IllegalArgumentException("archived share must be between 0 and 1");
+        }
+        if (days < 1) {
+            throw new IllegalArgumentException("days must be at least 1");
+        }
+        this.citizens = citizens;
+        this.requestsPerCitizen = requestsPerCitizen;
+        this.documentsPerRequest = documentsPerRequest;
+        this.archivedShare = archivedShare;
+        this.days = days;
+        this.seed = seed;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options;
+        DatasetGenerator generator;
+        try {
+            options = Options.parse(args, "dir", "citizens", "requests-per-citizen",
+                "documents-per-request", "archived", "days", "seed");
+            generator = new DatasetGenerator(
+                options.getInt("citizens", 10_000),
+                options.getDouble("requests-per-citizen", 2.0),
+                options.getDouble("documents-per-request", 1.0),
+                options.getDouble("archived", 0.05),
+                options.getInt("days", 365),
+                options.getLong("seed", 42));
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Usage: DatasetGenerator [--dir loadtest-data] [--citizens 10000]"
+                + " [--requests-per-citizen 2] [--documents-per-request 1] [--archived 0.05]"
+                + " [--days 365] [--seed 42]");
+            System.exit(2);
+            return;
+        }
+
+        Path dir = Path.of(options.get("dir", "loadtest-data"));
+        PrintStream console = System.out;
+        try (LocalDatabase db = LocalDatabase.open(dir)) {
+            if (db.getCitizenCount() > 0 || !db.getAllRequests().isEmpty()) {
+                console.println("Refusing to add synthetic records to a database that is not empty: "
+                    + dir.toAbsolutePath());
+                return;
+            }
+            long start = System.nanoTime();
+            Summary summary = generator.generate(db, console);
+            db.flush().join();
+            console.printf(Locale.ROOT, "Generated %s in %.1f s into %s%n",
+                summary, (System.nanoTime() - start) / 1e9, dir.toAbsolutePath());
+        }
+    }
+
+    /**
+     * Numbers of records written by {@link #generate}.
+     */
+    public static final class Summary {
+        private final int citizens;
+        private final int requests;
+        private final int documents;
+        private final int archived;
+
+        Summary(int citizens, int requests, int documents, int archived) {
+            this.citizens = citizens;
+            this.requests = requests;
+            this.documents = documents;
+            this.archived = archived;
+        }
+
+        public int getCitizens() {
+            return citizens;
+        }
+
+        public int getRequests() {
+            return requests;
+        }
+
+        public int getDocuments() {
+            return documents;
+        }
+
+        public int getArchived() {
+            return archived;
+        }
+
+        @Override
+        public String toString() {
+            return citizens + " citizens (" + archived + " archived), "
+                + requests + " requests, " + documents + " documents";
+        }
+    }
+
+    /**
+     * Add the records to {@code db}. Writes are not waited for; flush the
+     * database afterwards.
+     *
+     * @param progress where to report each finished phase, or null
+     */
+    public Summary generate(LocalDatabase db, PrintStream progress) {
+        Random random = new Random(seed);
+        LocalDateTime now = LocalDateTime.now();
+        int minutes = days * 24 * 60;
+
+        String[] citizenIds = new String[citizens];
+        for (int i = 0; i < citizens; i++) {
+            Citizen citizen = citizen(db.nextCitizenId(), i, random);
+            citizenIds[i] = citizen.getId();
+            db.addCitizen(citizen);
+        }
+        report(progress, citizens + " citizens");
+
+        int requestCount = (int) Math.round(citizens * requestsPerCitizen);
+        String[] requestIds = new String[requestCount];
+        int[] requestOwners = new int[requestCount];
+        ServiceRequest.Status[] requestStatuses = ServiceRequest.Status.values();
+        for (int i = 0; i < requestCount; i++) {
+            int owner = random.nextInt(citizens);
+            ServiceRequest.Status status = requestStatuses[pick(REQUEST_STATUS_WEIGHTS, random)];
+            String note = status == ServiceRequest.Status.REJECTED
+                ? REJECTION_NOTES[random.nextInt(REJECTION_NOTES.length)] : "";
+            ServiceRequest request = new ServiceRequest(db.nextRequestId(), citizenIds[owner],
+                SERVICE_TYPES[random.nextInt(SERVICE_TYPES.length)],
+                DESCRIPTIONS[random.nextInt(DESCRIPTIONS.length)],
+                status, note, now.minusMinutes(random.nextInt(minutes)));
+            requestIds[i] = request.getId();
+            requestOwners[i] = owner;
+            db.addRequest(request);
+        }
+        report(progress, requestCount + " requests");
+
+        int documentCount = requestCount == 0 ? 0 : (int) Math.round(requestCount * documentsPerRequest);
+        Document.Status[] documentStatuses = Document.Status.values();
+        for (int i = 0; i < documentCount; i++) {
+            int request = random.nextInt(requestCount);
+            String citizenId = citizenIds[requestOwners[request]];
+            Document.Status status = documentStatuses[pick(DOCUMENT_STATUS_WEIGHTS, random)];
+            LocalDateTime uploaded = now.minusMinutes(random.nextInt(minutes));
+            LocalDateTime reviewed = status == Document.Status.PENDING
+                ? null : uploaded.plusMinutes(1 + random.nextInt(3 * 24 * 60));
+            String comment = status == Document.Status.REJECTED
+                ? REJECTION_NOTES[random.nextInt(REJECTION_NOTES.length)] : "";
+            db.addDocument(new Document(db.nextDocumentId(), requestIds[request],
+                "/uploads/" + citizenId + "/scan-" + i + ".pdf", citizenId,
+                status, comment, uploaded, reviewed));
+        }
+        report(progress, documentCount + " documents");
+
+        int archived = (int) Math.round(citizens * archivedShare);
+        // A partial shuffle picks distinct citizens
+        for (int i = 0; i < archived; i++) {
+            int j = i + random.nextInt(citizens - i);
+            String chosen = citizenIds[j];
+            citizenIds[j] = citizenIds[i];
+            citizenIds[i] = chosen;
+            db.archiveCitizen(chosen, "Synthetic archive");
+        }
+        report(progress, archived + " archived citizens");
+
+        return new Summary(citizens, requestCount, documentCount, archived);
+    }
+
+    /**
+     * Citizen number {@code i}. Emails and mobile numbers are unique per
+     * {@code i}.
+     */
+    static Citizen citizen(String id, int i, Random random) {
+        String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+        String last = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+        String name = random.nextInt(3) == 0
+            ? first + " " + (char) ('A' + random.nextInt(26)) + ". " + last
+            : first + " " + last;
+
+        String email = (first + "." + last.replace(" ", "")).toLowerCase(Locale.ROOT)
+            + "." + i + "@" + EMAIL_DOMAINS[random.nextInt(EMAIL_DOMAINS.length)];
+
+        String subscriber = String.format(Locale.ROOT, "%09d", i * NUMBER_MIX % NUMBER_SPACE);
+        String number = random.nextInt(5) == 0 ? "+639" + subscriber : "09" + subscriber;
+
+        if (!Validator.isValidCitizenName(name) || !Validator.isValidEmail(email)
+                || !Validator.isValidCitizenNumber(number)) {
+            throw new IllegalStateException("Generated citizen does not validate: "
+                + name + ", " + email + ", " + number);
+        }
+        return new Citizen(id, name, number, email, number);
+    }
+
+    private static int pick(int[] weights, Random random) {
+        int total = 0;
+        for (int w : weights) {
+            total += w;
+        }
+        int r = random.nextInt(total);
+        for (int i = 0; i < weights.length; i++) {
+            r -= weights[i];
+            if (r < 0) return i;
+        }
+        return weights.length - 1;
+    }
+
+    private static void report(PrintStream progress, String phase) {
+        if (progress != null) {
+            progress.println("  ✓ " + phase);
+        }
+    }
+}
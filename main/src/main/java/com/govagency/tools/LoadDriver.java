@@ -0,0 +1,443 @@
+package com.govagency.tools;
+
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+
+import org.json.JSONObject;
+
+import com.govagency.LocalDatabase;
+import com.govagency.metrics.Histogram;
+import com.govagency.model.Archive;
+import com.govagency.model.Citizen;
+import com.govagency.model.Document;
+import com.govagency.model.ServiceRequest;
+import com.govagency.storage.CommitPolicy;
+import com.govagency.storage.ModelCodecs;
+
+/**
+ * Replays a concurrent mix of the application's operations against a
+ * database, e.g. one made by {@link DatasetGenerator}, and reports
+ * throughput and latency percentiles per operation.
+ *
+ * Every thread runs operations back to back, picked at random by weight,
+ * with an optional pause in between; each operation makes the same
+ * database calls as the screen it stands for:
+ * <ul>
+ *   <li>login: find the citizen by email, check the password and load the
+ *       citizen's requests and documents</li>
+ *   <li>submit: a new service request by a random citizen</li>
+ *   <li>upload: a new document attached to a random request</li>
+ *   <li>status: an admin approving or rejecting a random request or
+ *       document</li>
+ *   <li>archive: an admin deleting a citizen, timed as "archive", then
+ *       restoring them from the archive, timed as "restore"</li>
+ * </ul>
+ * By default an operation only counts as done once its changes are durable.
+ * Nothing is measured during the warm-up. The database is changed for good,
+ * so run against a copy.
+ *
+ * <pre>
+ * java -cp main-1.jar com.govagency.tools.LoadDriver --dir loadtest \
+ *     --threads 16 --duration 60 --warmup 10 \
+ *     --mix login=50,submit=15,upload=15,status=15,archive=5
+ * </pre>
+ */
+public class LoadDriver {
+
+    public enum Operation {
+        LOGIN("login"),
+        SUBMIT("submit"),
+        UPLOAD("upload"),
+        STATUS("status"),
+        ARCHIVE("archive"),
+        RESTORE("restore");
+
+        private final String label;
+
+        Operation(String label) {
+            this.label = label;
+        }
+    }
+
+    private static final String DEFAULT_MIX = "login=50,submit=15,upload=15,status=15,archive=5";
+    private static final int BUSY_RETRIES = 8;
+
+    private final LocalDatabase db;
+    private final Citizen[] citizens;
+    private final ServiceRequest[] requests;
+    private final Document[] documents;
+    private final Map<Operation, Integer> mix;
+    private final boolean waitDurable;
+    private final long thinkMillis;
+    // Citizens currently being archived and restored by some thread
+    private final Set<String> busy = ConcurrentHashMap.newKeySet();
+
+    public LoadDriver(LocalDatabase db, Map<Operation, Integer> mix, boolean waitDurable, long thinkMillis) {
+        this.db = db;
+        this.citizens = db.getAllCitizens().toArray(new Citizen[0]);
+        this.requests = db.getAllRequests().toArray(new ServiceRequest[0]);
+        this.documents = db.getAllDocuments().toArray(new Document[0]);
+        this.mix = new EnumMap<>(mix);
+        this.waitDurable = waitDurable;
+        this.thinkMillis = thinkMillis;
+
+        if (citizens.length == 0) {
+            throw new IllegalStateException("The database has no citizens; generate a dataset first");
+        }
+        if (requests.length == 0 && (weight(Operation.UPLOAD) > 0 || weight(Operation.STATUS) > 0)) {
+            throw new IllegalStateException("Uploads and status updates need existing requests");
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options;
+        Map<Operation, Integer> mix;
+        try {
+            options = Options.parse(args, "dir", "threads", "duration", "warmup", "mix",
+                "wait-durable", "think-ms", "seed");
+            mix = parseMix(options.get("mix", DEFAULT_MIX));
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Usage: LoadDriver [--dir loadtest-data] [--threads 8] [--duration 30]"
+                + " [--warmup 5] [--mix " + DEFAULT_MIX + "] [--wait-durable true]"
+                + " [--think-ms 0] [--seed 1]");
+            System.exit(2);
+            return;
+        }
+
+        Path dir = Path.of(options.get("dir", "loadtest-data"));
+        int threads = options.getInt("threads", 8);
+        int duration = options.getInt("duration", 30);
+        int warmup = options.getInt("warmup", 5);
+        long seed = options.getLong("seed", 1);
+
+        PrintStream console = System.out;
+        try (LocalDatabase db = LocalDatabase.open(dir)) {
+            LoadDriver driver = new LoadDriver(db, mix,
+                options.getBoolean("wait-durable", true), options.getLong("think-ms", 0));
+            console.printf(Locale.ROOT, "%d citizens, %d requests, %d documents in %s%n",
+                driver.citizens.length, driver.requests.length, driver.documents.length, dir.toAbsolutePath());
+            console.printf(Locale.ROOT, "%d threads, %d s warm-up, %d s measured, mix %s, commit policy %s%n",
+                threads, warmup, duration, mix, CommitPolicy.fromSystemProperties());
+
+            Result result = driver.run(threads, warmup * 1000L, duration * 1000L, seed);
+            console.print(result.report());
+        }
+    }
+
+    /**
+     * Parse weights like "login=50,submit=15". Operations left out get no
+     * weight; "archive" also covers the restore that follows it.
+     */
+    static Map<Operation, Integer> parseMix(String text) {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (String part : text.split(",")) {
+            String[] pair = part.trim().split("=");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Bad mix entry: " + part);
+            }
+            Operation operation = null;
+            for (Operation candidate : Operation.values()) {
+                if (candidate != Operation.RESTORE && candidate.label.equals(pair[0].trim())) {
+                    operation = candidate;
+                }
+            }
+            if (operation == null) {
+                throw new IllegalArgumentException("Unknown operation in mix: " + pair[0].trim());
+            }
+            int weight;
+            try {
+                weight = Integer.parseInt(pair[1].trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Bad weight in mix: " + part);
+            }
+            if (weight < 0) {
+                throw new IllegalArgumentException("Weights must not be negative: " + part);
+            }
+            mix.put(operation, weight);
+        }
+        if (mix.values().stream().mapToInt(Integer::intValue).sum() == 0) {
+            throw new IllegalArgumentException("The mix has no operations");
+        }
+        return mix;
+    }
+
+    /**
+     * Run the workload and wait for it to finish.
+     */
+    public Result run(int threads, long warmupMillis, long durationMillis, long seed) throws InterruptedException {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be at least 1");
+        }
+        Operation[] choices = choices();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Worker> workers = new ArrayList<>();
+        List<Thread> running = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            Worker worker = new Worker(new SplittableRandom(seed + i), choices);
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                    worker.run();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }, "load-driver-" + i);
+            workers.add(worker);
+            running.add(thread);
+            thread.start();
+        }
+
+        long begin = System.nanoTime();
+        for (Worker worker : workers) {
+            worker.measureFrom = begin + warmupMillis * 1_000_000L;
+            worker.end = worker.measureFrom + durationMillis * 1_000_000L;
+        }
+        start.countDown();
+        for (Thread thread : running) {
+            thread.join();
+        }
+
+        Result result = new Result(durationMillis);
+        for (Worker worker : workers) {
+            result.add(worker);
+        }
+        return result;
+    }
+
+    // One slot per unit of weight, so picking is a single array lookup
+    private Operation[] choices() {
+        List<Operation> slots = new ArrayList<>();
+        for (Map.Entry<Operation, Integer> entry : mix.entrySet()) {
+            for (int i = 0; i < entry.getValue(); i++) {
+                slots.add(entry.getKey());
+            }
+        }
+        return slots.toArray(new Operation[0]);
+    }
+
+    private int weight(Operation operation) {
+        return mix.getOrDefault(operation, 0);
+    }
+
+    private final class Worker {
+        final SplittableRandom random;
+        final Operation[] choices;
+        final Map<Operation, Histogram> latencies = new EnumMap<>(Operation.class);
+        final Map<Operation, Long> errors = new EnumMap<>(Operation.class);
+        final Map<Operation, String> firstErrors = new EnumMap<>(Operation.class);
+        volatile long measureFrom;
+        volatile long end;
+        int uploads;
+
+        Worker(SplittableRandom random, Operation[] choices) {
+            this.random = random;
+            this.choices = choices;
+            for (Operation operation : Operation.values()) {
+                latencies.put(operation, new Histogram());
+                errors.put(operation, 0L);
+            }
+        }
+
+        void run() throws InterruptedException {
+            while (System.nanoTime() < end) {
+                switch (choices[random.nextInt(choices.length)]) {
+                    case LOGIN -> login();
+                    case SUBMIT -> submit();
+                    case UPLOAD -> upload();
+                    case STATUS -> updateStatus();
+                    default -> archiveAndRestore();
+                }
+                if (thinkMillis > 0) {
+                    Thread.sleep(thinkMillis);
+                }
+            }
+        }
+
+        void login() {
+            Citizen citizen = citizens[random.nextInt(citizens.length)];
+            String email = citizen.getEmail().trim().toLowerCase();
+            String password = citizen.getPassword();
+            timed(Operation.LOGIN, () -> {
+                Citizen found = db.findCitizenByEmail(email);
+                // Misses are expected while another thread has the citizen archived
+                if (found == null) return;
+                if (found.getPassword().equals(password) || found.getNumber().trim().equals(password)) {
+                    db.getRequestsByCitizenId(found.getId());
+                    db.getDocumentsByCitizenId(found.getId());
+                }
+            });
+        }
+
+        void submit() {
+            Citizen citizen = citizens[random.nextInt(citizens.length)];
+            String type = DatasetGenerator.SERVICE_TYPES[random.nextInt(DatasetGenerator.SERVICE_TYPES.length)];
+            timed(Operation.SUBMIT, () -> await(db.addRequest(
+                new ServiceRequest(db.nextRequestId(), citizen.getId(), type, "Submitted by the load driver"))));
+        }
+
+        void upload() {
+            ServiceRequest request = requests[random.nextInt(requests.length)];
+            String path = "/uploads/" + request.getCitizenId() + "/load-" + Thread.currentThread().getName()
+                + "-" + uploads++ + ".pdf";
+            timed(Operation.UPLOAD, () -> await(db.addDocument(
+                new Document(db.nextDocumentId(), request.getId(), path, request.getCitizenId()))));
+        }
+
+        // Updates go through copies; the stored rows belong to the database
+        void updateStatus() {
+            if (documents.length == 0 || random.nextBoolean()) {
+                ServiceRequest r = requests[random.nextInt(requests.length)];
+                boolean reject = random.nextInt(5) == 0;
+                ServiceRequest updated = new ServiceRequest(r.getId(), r.getCitizenId(), r.getServiceType(),
+                    r.getDescription(),
+                    reject ? ServiceRequest.Status.REJECTED : ServiceRequest.Status.COMPLETED,
+                    reject ? "Incomplete requirements" : "", r.getCreatedAt());
+                timed(Operation.STATUS, () -> await(db.updateRequest(updated.getId(), updated)));
+            } else {
+                Document d = documents[random.nextInt(documents.length)];
+                boolean reject = random.nextInt(5) == 0;
+                Document updated = new Document(d.getId(), d.getAttachedRequestId(), d.getFilePath(),
+                    d.getCitizenId(), reject ? Document.Status.REJECTED : Document.Status.APPROVED,
+                    reject ? "Blurry scan, please upload again" : "", d.getUploadTime(), LocalDateTime.now());
+                timed(Operation.STATUS, () -> await(db.updateDocument(updated.getId(), updated)));
+            }
+        }
+
+        void archiveAndRestore() {
+            String citizenId = null;
+            for (int i = 0; i < BUSY_RETRIES && citizenId == null; i++) {
+                String candidate = citizens[random.nextInt(citizens.length)].getId();
+                if (busy.add(candidate)) {
+                    citizenId = candidate;
+                }
+            }
+            if (citizenId == null) return;
+
+            String id = citizenId;
+            try {
+                timed(Operation.ARCHIVE, () -> await(db.archiveCitizen(id, "Load test")));
+                timed(Operation.RESTORE, () -> {
+                    Archive archive = db.getArchiveByEntityId(id, Archive.ArchiveType.DELETED_CITIZEN.name());
+                    if (archive == null) {
+                        throw new IllegalStateException("No archive for " + id);
+                    }
+                    Citizen restored = ModelCodecs.CITIZEN.fromJson(new JSONObject(archive.getDetails()));
+                    await(db.addCitizen(restored));
+                });
+            } finally {
+                busy.remove(id);
+            }
+        }
+
+        private void timed(Operation operation, Runnable action) {
+            long started = System.nanoTime();
+            try {
+                action.run();
+            } catch (RuntimeException e) {
+                if (started >= measureFrom) {
+                    errors.merge(operation, 1L, Long::sum);
+                    firstErrors.putIfAbsent(operation, String.valueOf(e.getMessage()));
+                }
+                return;
+            }
+            if (started >= measureFrom) {
+                latencies.get(operation).record(System.nanoTime() - started);
+            }
+        }
+
+        private void await(CompletableFuture<Void> durable) {
+            if (waitDurable) {
+                durable.join();
+            }
+        }
+    }
+
+    /**
+     * Latencies and errors of all threads, per operation.
+     */
+    public static final class Result {
+
+        private final long durationMillis;
+        private final Map<Operation, Histogram> latencies = new EnumMap<>(Operation.class);
+        private final Map<Operation, Long> errors = new EnumMap<>(Operation.class);
+        private final Map<Operation, String> firstErrors = new EnumMap<>(Operation.class);
+
+        private Result(long durationMillis) {
+            this.durationMillis = durationMillis;
+            for (Operation operation : Operation.values()) {
+                latencies.put(operation, new Histogram());
+                errors.put(operation, 0L);
+            }
+        }
+
+        private void add(Worker worker) {
+            for (Operation operation : Operation.values()) {
+                latencies.get(operation).add(worker.latencies.get(operation));
+                errors.merge(operation, worker.errors.get(operation), Long::sum);
+                String error = worker.firstErrors.get(operation);
+                if (error != null) {
+                    firstErrors.putIfAbsent(operation, error);
+                }
+            }
+        }
+
+        /**
+         * Completed operations per second over the measured period.
+         */
+        public double throughput() {
+            long total = 0;
+            for (Histogram histogram : latencies.values()) {
+                total += histogram.count();
+            }
+            return total * 1000.0 / durationMillis;
+        }
+
+        public String report() {
+            StringBuilder out = new StringBuilder();
+            out.append(String.format(Locale.ROOT, "%n%-9s %10s %7s %10s %9s %9s %9s %9s %9s%n",
+                "operation", "count", "errors", "ops/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms"));
+
+            Histogram all = new Histogram();
+            long allErrors = 0;
+            for (Operation operation : Operation.values()) {
+                Histogram histogram = latencies.get(operation);
+                long failed = errors.get(operation);
+                if (histogram.count() == 0 && failed == 0) continue;
+                appendRow(out, operation.label, histogram, failed);
+                all.add(histogram);
+                allErrors += failed;
+            }
+            appendRow(out, "total", all, allErrors);
+
+            for (Map.Entry<Operation, String> error : firstErrors.entrySet()) {
+                out.append("First ").append(error.getKey().label).append(" error: ")
+                    .append(error.getValue()).append('\n');
+            }
+            return out.toString();
+        }
+
+        private void appendRow(StringBuilder out, String label, Histogram histogram, long failed) {
+            out.append(String.format(Locale.ROOT, "%-9s %10d %7d %10.1f %9.3f %9.3f %9.3f %9.3f %9.3f%n",
+                label, histogram.count(), failed, histogram.count() * 1000.0 / durationMillis,
+                millis(histogram.percentile(50)), millis(histogram.percentile(90)),
+                millis(histogram.percentile(99)), millis(histogram.percentile(99.9)),
+                millis(histogram.max())));
+        }
+
+        private static double millis(long nanos) {
+            return nanos / 1e6;
+        }
+    }
+}
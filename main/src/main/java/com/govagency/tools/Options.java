@@ -0,0 +1,94 @@
+package com.govagency.tools;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Command-line options of the form {@code --name value}.
+ */
+final class Options {
+
+    private final Map<String, String> values = new LinkedHashMap<>();
+
+    private Options() {
+    }
+
+    /**
+     * @throws IllegalArgumentException if an option is not one of
+     *                                  {@code known} or has no value
+     */
+    static Options parse(String[] args, String... known) {
+        Options options = new Options();
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument: " + arg);
+            }
+            String name = arg.substring(2);
+            String value;
+            int equals = name.indexOf('=');
+            if (equals >= 0) {
+                value = name.substring(equals + 1);
+                name = name.substring(0, equals);
+            } else if (i + 1 < args.length) {
+                value = args[++i];
+            } else {
+                throw new IllegalArgumentException("Missing value for --" + name);
+            }
+            if (!isKnown(name, known)) {
+                throw new IllegalArgumentException("Unknown option: --" + name);
+            }
+            options.values.put(name, value);
+        }
+        return options;
+    }
+
+    String get(String name, String defaultValue) {
+        return values.getOrDefault(name, defaultValue);
+    }
+
+    int getInt(String name, int defaultValue) {
+        String value = values.get(name);
+        if (value == null) return defaultValue;
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("--" + name + " must be a whole number: " + value);
+        }
+    }
+
+    long getLong(String name, long defaultValue) {
+        String value = values.get(name);
+        if (value == null) return defaultValue;
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("--" + name + " must be a whole number: " + value);
+        }
+    }
+
+    double getDouble(String name, double defaultValue) {
+        String value = values.get(name);
+        if (value == null) return defaultValue;
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("--" + name + " must be a number: " + value);
+        }
+    }
+
+    boolean getBoolean(String name, boolean defaultValue) {
+        String value = values.get(name);
+        if (value == null) return defaultValue;
+        if (value.equalsIgnoreCase("true")) return true;
+        if (value.equalsIgnoreCase("false")) return false;
+        throw new IllegalArgumentException("--" + name + " must be true or false: " + value);
+    }
+
+    private static boolean isKnown(String name, String[] known) {
+        for (String k : known) {
+            if (k.equals(name)) return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,106 @@
+package com.govagency.util;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import com.govagency.logging.Logger;
+import com.govagency.logging.Logging;
+
+import javafx.concurrent.Task;
+
+/**
+ * Runs loads, searches and report building off the JavaFX Application
+ * Thread. Results and errors are delivered back on the FX thread.
+ */
+public final class BackgroundTasks {
+
+    private static final Logger LOG = Logging.logger("ui.tasks");
+
+    private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+
+    private static final ThreadFactory THREAD_FACTORY = r -> {
+        Thread t = new Thread(r, "ui-worker-" + THREAD_COUNT.incrementAndGet());
+        t.setDaemon(true);
+        return t;
+    };
+
+    private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(
+        Math.max(2, Runtime.getRuntime().availableProcessors() / 2), THREAD_FACTORY);
+
+    private BackgroundTasks() {
+    }
+
+    /**
+     * Work to run in the background.
+     */
+    public interface Work<T> {
+        T run(Progress progress) throws Exception;
+    }
+
+    /**
+     * Handed to running work so it can report progress and notice when it
+     * has been cancelled.
+     */
+    public interface Progress {
+        void update(long done, long total);
+
+        void message(String message);
+
+        boolean isCancelled();
+    }
+
+    /**
+     * Start work in the background. {@code onSuccess} and {@code onFailure}
+     * run on the FX thread; neither runs if the task is cancelled. The
+     * returned task can be cancelled and exposes progress and message
+     * properties for binding.
+     */
+    public static <T> Task<T> submit(Work<T> work, Consumer<T> onSuccess, Consumer<Throwable> onFailure) {
+        WorkTask<T> task = new WorkTask<>(work);
+
+        task.setOnSucceeded(e -> onSuccess.accept(task.getValue()));
+        task.setOnFailed(e -> {
+            Throwable error = task.getException();
+            LOG.warn("Background task failed", error);
+            if (onFailure != null) {
+                onFailure.accept(error);
+            }
+        });
+
+        EXECUTOR.execute(task);
+        return task;
+    }
+
+    private static class WorkTask<T> extends Task<T> implements Progress {
+        private final Work<T> work;
+
+        WorkTask(Work<T> work) {
+            this.work = work;
+        }
+
+        @Override
+        protected T call() throws Exception {
+            return work.run(this);
+        }
+
+        @Override
+        public void update(long done, long total) {
+            updateProgress(done, total);
+        }
+
+        @Override
+        public void message(String message) {
+            updateMessage(message);
+        }
+    }
+
+    /**
+     * Cancel everything still running. Called once on application exit.
+     */
+    public static void shutdown() {
+        EXECUTOR.shutdownNow();
+    }
+}
@@ -0,0 +1,235 @@
+package com.govagency.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import com.govagency.storage.Page;
+import com.govagency.storage.PageRequest;
+
+import javafx.beans.property.ReadOnlyStringWrapper;
+import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import javafx.collections.transformation.FilteredList;
+import javafx.collections.transformation.SortedList;
+import javafx.geometry.Pos;
+import javafx.scene.Node;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+import javafx.scene.control.TextField;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.Region;
+import javafx.scene.layout.VBox;
+import javafx.scene.paint.Color;
+
+/**
+ * A table of model objects with a filter field above every column.
+ *
+ * Rows live in an observable list that is filtered and sorted in place, so
+ * the table only creates cells for the rows currently on screen and
+ * filtering or sorting never rebuilds anything but the visible cells.
+ *
+ * A table can also show one {@link Page} of a larger result at a time, with
+ * previous/next buttons that ask for the neighbouring page. Sorting and
+ * filters then apply to the rows of the current page.
+ */
+public class RecordTable<T> {
+
+    private final ObservableList<T> rows = FXCollections.observableArrayList();
+    private final FilteredList<T> filtered = new FilteredList<>(rows);
+    private final TableView<T> table = new TableView<>();
+    private final HBox filterRow = new HBox();
+    private final Label countLabel = new Label();
+    private final Button previousBtn = createPagerButton("◀ Previous");
+    private final Button nextBtn = createPagerButton("Next ▶");
+    private final HBox pager;
+    private final VBox view;
+
+    private final List<Function<T, String>> values = new ArrayList<>();
+    private final List<TextField> filters = new ArrayList<>();
+
+    private Page<T> page;
+    private Consumer<PageRequest> onPage;
+
+    public RecordTable(String placeholder) {
+        SortedList<T> sorted = new SortedList<>(filtered);
+        sorted.comparatorProperty().bind(table.comparatorProperty());
+        table.setItems(sorted);
+
+        Label empty = new Label(placeholder);
+        empty.setTextFill(Color.web("#8b949e"));
+        table.setPlaceholder(empty);
+        table.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY);
+        table.setPrefHeight(420);
+        table.setStyle(
+            "-fx-base: #161b22;" +
+            "-fx-control-inner-background: #0d1117;" +
+            "-fx-control-inner-background-alt: #161b22;" +
+            "-fx-table-cell-border-color: #30363d;" +
+            "-fx-selection-bar: #1f6feb;" +
+            "-fx-border-color: #58a6ff;" +
+            "-fx-border-radius: 4;" +
+            "-fx-font-size: 12;"
+        );
+
+        countLabel.setTextFill(Color.web("#8b949e"));
+        filtered.addListener((ListChangeListener<T>) change -> updateCount());
+        updateCount();
+
+        previousBtn.setOnAction(e -> requestPage(page == null ? null : page.previous()));
+        nextBtn.setOnAction(e -> requestPage(page == null ? null : page.next()));
+        Region spacer = new Region();
+        HBox.setHgrow(spacer, Priority.ALWAYS);
+        pager = new HBox(8, countLabel, spacer, previousBtn, nextBtn);
+        pager.setAlignment(Pos.CENTER_LEFT);
+        showPager(false);
+
+        view = new VBox(6, filterRow, table, pager);
+    }
+
+    /**
+     * Add a column showing {@code value} for each row. The column sorts on
+     * that text and gets a filter field that matches it case-insensitively.
+     */
+    public RecordTable<T> addColumn(String title, Function<T, String> value) {
+        TableColumn<T, String> column = new TableColumn<>(title);
+        column.setCellValueFactory(cell -> new ReadOnlyStringWrapper(value.apply(cell.getValue())));
+        table.getColumns().add(column);
+
+        TextField filter = new TextField();
+        filter.setPromptText("Filter " + title.toLowerCase() + "...");
+        filter.setStyle(
+            "-fx-background-color: #0d1117;" +
+            "-fx-text-fill: #ffffff;" +
+            "-fx-prompt-text-fill: #8b949e;" +
+            "-fx-border-color: #30363d;" +
+            "-fx-font-size: 11;"
+        );
+        filter.prefWidthProperty().bind(column.widthProperty());
+        filter.minWidthProperty().bind(column.widthProperty());
+        filter.textProperty().addListener((obs, oldText, newText) -> refilter());
+        filterRow.getChildren().add(filter);
+
+        values.add(value);
+        filters.add(filter);
+        return this;
+    }
+
+    /**
+     * Replace the rows. Filters and sort order stay as the user left them.
+     */
+    public void setRows(Collection<? extends T> items) {
+        page = null;
+        showPager(false);
+        rows.setAll(items);
+    }
+
+    /**
+     * Show one page of a larger result and enable the page buttons.
+     */
+    public void showPage(Page<T> newPage) {
+        page = newPage;
+        rows.setAll(newPage.getRows());
+        previousBtn.setDisable(!newPage.hasPrevious());
+        nextBtn.setDisable(!newPage.hasNext());
+        showPager(true);
+        updateCount();
+    }
+
+    /**
+     * Called with the request for the neighbouring page when the user
+     * presses previous or next. It should fetch the page and pass it to
+     * {@link #showPage}.
+     */
+    public void setOnPage(Consumer<PageRequest> fetch) {
+        this.onPage = fetch;
+    }
+
+    /**
+     * Run {@code action} whenever the user selects a row.
+     */
+    public void setOnSelect(Consumer<T> action) {
+        table.getSelectionModel().selectedItemProperty().addListener((obs, oldRow, newRow) -> {
+            if (newRow != null) {
+                action.accept(newRow);
+            }
+        });
+    }
+
+    public Node getView() {
+        return view;
+    }
+
+    private void refilter() {
+        List<Integer> active = new ArrayList<>();
+        List<String> needles = new ArrayList<>();
+        for (int i = 0; i < filters.size(); i++) {
+            String text = filters.get(i).getText().trim().toLowerCase();
+            if (!text.isEmpty()) {
+                active.add(i);
+                needles.add(text);
+            }
+        }
+
+        if (active.isEmpty()) {
+            filtered.setPredicate(null);
+            return;
+        }
+
+        filtered.setPredicate(row -> {
+            for (int i = 0; i < active.size(); i++) {
+                String cell = values.get(active.get(i)).apply(row);
+                if (cell == null || !cell.toLowerCase().contains(needles.get(i))) {
+                    return false;
+                }
+            }
+            return true;
+        });
+    }
+
+    private void requestPage(PageRequest request) {
+        if (request != null && onPage != null) {
+            onPage.accept(request);
+        }
+    }
+
+    private void showPager(boolean paged) {
+        previousBtn.setVisible(paged);
+        previousBtn.setManaged(paged);
+        nextBtn.setVisible(paged);
+        nextBtn.setManaged(paged);
+    }
+
+    private static Button createPagerButton(String text) {
+        Button button = new Button(text);
+        button.setStyle(
+            "-fx-background-color: #1f6feb;" +
+            "-fx-text-fill: white;" +
+            "-fx-background-radius: 6;" +
+            "-fx-font-size: 11;"
+        );
+        return button;
+    }
+
+    private void updateCount() {
+        if (page != null) {
+            int from = page.getOffset() + 1;
+            int to = page.getOffset() + rows.size();
+            String range = rows.isEmpty() ? "No rows" : "Rows " + from + "–" + to;
+            String shown = filtered.size() == rows.size() ? "" : " (" + filtered.size() + " match the filters)";
+            countLabel.setText(range + " of " + page.getTotal() + shown);
+            return;
+        }
+        if (filtered.size() == rows.size()) {
+            countLabel.setText(rows.size() + " rows");
+        } else {
+            countLabel.setText(filtered.size() + " of " + rows.size() + " rows");
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.govagency.util;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import com.govagency.model.Document;
+
+/**
+ * Renders the plain-text reports shown in the status areas.
+ *
+ * A report is built in a per-thread buffer that is reused from one report
+ * to the next. Rows are written by {@link Template}s, which are put together
+ * once and then append each field straight into the buffer, so rendering a
+ * row creates no format strings, argument arrays or intermediate text.
+ */
+public final class ReportRenderer {
+
+    /** Date and time as shown in tables and reports; the same form documents use. */
+    public static final DateTimeFormatter DATE_TIME = Document.UPLOAD_TIME_FORMAT;
+
+    public static final String RULE = "────────────────────────────────────────────────────────────\n";
+
+    private static final int INITIAL_CAPACITY = 8 * 1024;
+    // Buffers that grew past this for one huge report are not kept around
+    private static final int MAX_RETAINED_CAPACITY = 4 * 1024 * 1024;
+    private static final ThreadLocal<StringBuilder> BUFFER =
+        ThreadLocal.withInitial(() -> new StringBuilder(INITIAL_CAPACITY));
+
+    private ReportRenderer() {
+    }
+
+    /**
+     * The calling thread's empty report buffer. The same buffer is returned
+     * on every call, so finish with it (e.g. call toString) before asking
+     * for it again.
+     */
+    public static StringBuilder buffer() {
+        StringBuilder buffer = BUFFER.get();
+        if (buffer.capacity() > MAX_RETAINED_CAPACITY) {
+            buffer = new StringBuilder(INITIAL_CAPACITY);
+            BUFFER.set(buffer);
+        }
+        buffer.setLength(0);
+        return buffer;
+    }
+
+    /**
+     * Append a time in {@link #DATE_TIME} form without going through a
+     * formatter.
+     */
+    public static StringBuilder appendDateTime(StringBuilder out, LocalDateTime time) {
+        if (time == null) return out;
+        appendPadded(out, time.getYear(), 4).append('-');
+        appendPadded(out, time.getMonthValue(), 2).append('-');
+        appendPadded(out, time.getDayOfMonth(), 2).append(' ');
+        appendPadded(out, time.getHour(), 2).append(':');
+        return appendPadded(out, time.getMinute(), 2);
+    }
+
+    /**
+     * Append {@code text} left-aligned in a column of {@code width} characters.
+     */
+    public static StringBuilder appendLeft(StringBuilder out, String text, int width) {
+        out.append(text);
+        for (int i = text.length(); i < width; i++) {
+            out.append(' ');
+        }
+        return out;
+    }
+
+    /**
+     * Append {@code value} right-aligned in a column of {@code width} characters.
+     */
+    public static StringBuilder appendRight(StringBuilder out, int value, int width) {
+        String text = Integer.toString(value);
+        for (int i = text.length(); i < width; i++) {
+            out.append(' ');
+        }
+        return out.append(text);
+    }
+
+    private static StringBuilder appendPadded(StringBuilder out, int value, int width) {
+        for (int limit = 10, digits = 1; digits < width; limit *= 10, digits++) {
+            if (value < limit) {
+                out.append('0');
+            }
+        }
+        return out.append(value);
+    }
+
+    public static String statusEmoji(String status) {
+        return switch (status) {
+            case "APPROVED" -> "✅";
+            case "REJECTED" -> "❌";
+            case "PENDING" -> "⏳";
+            case "COMPLETED" -> "✔️";
+            case "PROCESSING" -> "⚙️";
+            case "REQUESTED" -> "📩";
+            default -> "❓";
+        };
+    }
+
+    /**
+     * Appends one piece of a row.
+     */
+    @FunctionalInterface
+    public interface Field<T> {
+        void append(StringBuilder out, T row);
+    }
+
+    /**
+     * The layout of one report row: a fixed sequence of literal text and
+     * fields. Templates are immutable and can be shared between threads.
+     */
+    public static final class Template<T> {
+
+        private final List<Field<T>> parts;
+
+        private Template(List<Field<T>> parts) {
+            this.parts = List.copyOf(parts);
+        }
+
+        public static <T> Builder<T> builder() {
+            return new Builder<>();
+        }
+
+        public StringBuilder appendTo(StringBuilder out, T row) {
+            // Indexed, so rendering a row does not create an iterator
+            for (int i = 0; i < parts.size(); i++) {
+                parts.get(i).append(out, row);
+            }
+            return out;
+        }
+    }
+
+    public static final class Builder<T> {
+
+        private final List<Field<T>> parts = new ArrayList<>();
+        private final StringBuilder pendingText = new StringBuilder();
+
+        private Builder() {
+        }
+
+        public Builder<T> text(String text) {
+            pendingText.append(text);
+            return this;
+        }
+
+        /**
+         * A line with a label and a value, e.g. "ID: REQ-...".
+         */
+        public Builder<T> line(String label, Function<T, String> value) {
+            text(label);
+            field((out, row) -> out.append(value.apply(row)));
+            return text("\n");
+        }
+
+        /**
+         * Like {@link #line(String, Function)}, but the whole line is left
+         * out when the value is empty.
+         */
+        public Builder<T> optionalLine(String label, Function<T, String> value) {
+            flushText();
+            parts.add((out, row) -> {
+                String v = value.apply(row);
+                if (v != null && !v.isEmpty()) {
+                    out.append(label).append(v).append('\n');
+                }
+            });
+            return this;
+        }
+
+        public Builder<T> field(Field<T> field) {
+            flushText();
+            parts.add(field);
+            return this;
+        }
+
+        public Template<T> build() {
+            flushText();
+            return new Template<>(parts);
+        }
+
+        // Neighbouring literals become a single append
+        private void flushText() {
+            if (pendingText.length() == 0) return;
+            String literal = pendingText.toString();
+            pendingText.setLength(0);
+            parts.add((out, row) -> out.append(literal));
+        }
+    }
+}